@@ -0,0 +1,81 @@
+package com.example.todo_backend_reactive.Controller;
+
+import com.example.todo_backend_reactive.DTOs.TaskRequestDTO;
+import com.example.todo_backend_reactive.DTOs.TaskResponseDTO;
+import com.example.todo_backend_reactive.Exception.UserException;
+import com.example.todo_backend_reactive.Repository.UserRepository;
+import com.example.todo_backend_reactive.Security.AuthenticatedUser;
+import com.example.todo_backend_reactive.Service.TaskService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Same paths, status codes and bodies as todo-backend's TaskController for the basic operations
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "${app.cors.allowedOrigin}")
+public class TaskController {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Id of the authenticated user from the JWT principal; only tokens issued before the id
+    // claim existed need a lookup by email
+    private Mono<Long> getCurrentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> (AuthenticatedUser) context.getAuthentication().getPrincipal())
+                .flatMap(principal -> principal.getUserId() != null
+                        ? Mono.just(principal.getUserId())
+                        : userRepository.findIdByEmail(principal.getEmail()))
+                .switchIfEmpty(Mono.error(() -> new UserException("User not found.")));
+    }
+
+    @PostMapping("/create")
+    public Mono<ResponseEntity<TaskResponseDTO>> createTask(@Valid @RequestBody TaskRequestDTO taskRequestDTO) {
+        return getCurrentUserId()
+                .flatMap(userId -> taskService.createTask(taskRequestDTO, userId))
+                .map(createdTask -> new ResponseEntity<>(createdTask, HttpStatus.CREATED));
+    }
+
+    // Streams rows as they arrive: a JSON array by default, one document per line for
+    // Accept: application/x-ndjson. A slow client slows down the database fetch instead of
+    // the whole list being buffered in memory
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TaskResponseDTO> getAllTasks() {
+        return getCurrentUserId().flatMapMany(taskService::getAllTasksByUser);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TaskResponseDTO>> getTaskById(@PathVariable(name = "id") Long taskId) {
+        return getCurrentUserId()
+                .flatMap(userId -> taskService.getTaskById(taskId, userId))
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TaskResponseDTO>> updateTask(@PathVariable(name = "id") Long taskId,
+                                                            @Valid @RequestBody TaskRequestDTO taskRequestDTO) {
+        return getCurrentUserId()
+                .flatMap(userId -> taskService.updateTask(taskId, taskRequestDTO, userId))
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, String>>> deleteTask(@PathVariable(name = "id") Long taskId) {
+        return getCurrentUserId()
+                .flatMap(userId -> taskService.deleteTask(taskId, userId))
+                .then(Mono.fromCallable(() -> ResponseEntity.ok(Collections.singletonMap("message", "Task deleted successfully."))));
+    }
+}
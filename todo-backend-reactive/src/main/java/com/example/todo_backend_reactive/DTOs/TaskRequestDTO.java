@@ -0,0 +1,14 @@
+package com.example.todo_backend_reactive.DTOs;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TaskRequestDTO {
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+
+    private Boolean completed;
+}
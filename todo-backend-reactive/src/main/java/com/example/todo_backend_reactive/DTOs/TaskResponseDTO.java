@@ -0,0 +1,21 @@
+package com.example.todo_backend_reactive.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Same JSON shape as todo-backend; the all-args constructor is what R2DBC maps query rows into
+@Data
+@Builder
+@AllArgsConstructor
+public class TaskResponseDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // todo-backend's optimistic-locking version, bumped here too so its ETags stay valid
+    private long version;
+}
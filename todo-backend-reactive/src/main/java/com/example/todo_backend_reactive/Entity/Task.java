@@ -0,0 +1,41 @@
+package com.example.todo_backend_reactive.Entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Mapping of the tasks table created by the todo-backend migrations. Writes go through the
+// SQL in TaskRepository, which also assigns ids and change versions
+@Table("tasks")
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Task {
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private boolean completed;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private boolean deleted;
+
+    private LocalDateTime deletedAt;
+
+    private long changeVersion;
+
+    // Optimistic-locking version of todo-backend's Task; every write statement increments it
+    private long version;
+
+    private Long userId;
+}
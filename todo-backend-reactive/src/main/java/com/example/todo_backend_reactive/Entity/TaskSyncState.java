@@ -0,0 +1,22 @@
+package com.example.todo_backend_reactive.Entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// Per-user change counter for delta sync, shared with todo-backend: every write here reserves
+// its version from the same row, so both services can serve the same users
+@Table("task_sync_state")
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskSyncState {
+    @Id
+    private Long userId;
+
+    private long version;
+
+    private long purgedVersion;
+}
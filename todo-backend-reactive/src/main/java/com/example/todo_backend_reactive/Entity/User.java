@@ -0,0 +1,31 @@
+package com.example.todo_backend_reactive.Entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Read-only view of the users table; accounts are created and changed by todo-backend only
+@Table("users")
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class User {
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String email;
+
+    private String number;
+
+    private boolean enabled;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
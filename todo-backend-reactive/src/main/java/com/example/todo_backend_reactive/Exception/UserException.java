@@ -0,0 +1,7 @@
+package com.example.todo_backend_reactive.Exception;
+
+public class UserException extends RuntimeException {
+    public UserException(String message) {
+        super(message);
+    }
+}
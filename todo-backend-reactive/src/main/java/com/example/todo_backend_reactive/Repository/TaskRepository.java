@@ -0,0 +1,61 @@
+package com.example.todo_backend_reactive.Repository;
+
+import com.example.todo_backend_reactive.DTOs.TaskResponseDTO;
+import com.example.todo_backend_reactive.Entity.Task;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TaskRepository extends R2dbcRepository<Task, Long> {
+
+    // Columns of TaskResponseDTO; rows are mapped straight into it
+    String RESPONSE_COLUMNS = "id, title, description, completed, created_at, updated_at, version";
+
+    // Rows are pulled from the server as the subscriber requests them (see spring.r2dbc.properties.fetchSize)
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM tasks WHERE user_id = :userId AND NOT deleted ORDER BY created_at, id")
+    Flux<TaskResponseDTO> findResponsesByUserId(Long userId);
+
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM tasks WHERE id = :id AND user_id = :userId AND NOT deleted")
+    Mono<TaskResponseDTO> findResponseByIdAndUserId(Long id, Long userId);
+
+    // todo-backend allocates ids in blocks of 50 and treats each sequence value as the top of its
+    // block, so a value taken here directly can never fall inside a block it hands out
+    @Query("INSERT INTO tasks (id, title, description, completed, created_at, deleted, change_version, user_id) " +
+            "VALUES (nextval('tasks_seq'), :title, :description, false, :now, false, :version, :userId) " +
+            "RETURNING " + RESPONSE_COLUMNS)
+    Mono<TaskResponseDTO> insertTask(Long userId, String title, String description, LocalDateTime now, long version);
+
+    // A null completed keeps the current state, as in todo-backend
+    @Query("UPDATE tasks SET title = :title, description = :description, completed = COALESCE(:completed, completed), " +
+            "updated_at = :now, change_version = :version, version = version + 1 " +
+            "WHERE id = :id AND user_id = :userId AND NOT deleted RETURNING " + RESPONSE_COLUMNS)
+    Mono<TaskResponseDTO> updateOwned(Long id, Long userId, String title, String description, Boolean completed,
+                                      LocalDateTime now, long version);
+
+    // Leaves a tombstone for delta sync, exactly like todo-backend's delete
+    @Modifying
+    @Query("UPDATE tasks SET deleted = true, deleted_at = :now, updated_at = :now, description = NULL, " +
+            "change_version = :version, version = version + 1 WHERE id = :id AND user_id = :userId AND NOT deleted")
+    Mono<Integer> tombstoneOwned(Long id, Long userId, LocalDateTime now, long version);
+
+    // todo-backend's TaskArchiver moves long-completed tasks to tasks_archive; these mirror its
+    // TaskArchiveRepository so archived tasks stay readable and writable here too
+    @Query("SELECT id, title, description, TRUE AS completed, created_at, updated_at, version " +
+            "FROM tasks_archive WHERE id = :id AND user_id = :userId")
+    Mono<TaskResponseDTO> findArchivedResponseByIdAndUserId(Long id, Long userId);
+
+    // Moves the task back to the hot table, e.g. before it is edited; 0 when it is not archived
+    @Modifying
+    @Query("WITH restored AS (DELETE FROM tasks_archive WHERE user_id = :userId AND id = :id " +
+            "RETURNING id, title, description, created_at, updated_at, change_version, version, user_id) " +
+            "INSERT INTO tasks (id, title, description, created_at, updated_at, change_version, version, user_id, " +
+            "completed, deleted) SELECT id, title, description, created_at, updated_at, change_version, version, " +
+            "user_id, TRUE, FALSE FROM restored")
+    Mono<Integer> restoreArchived(Long id, Long userId);
+}
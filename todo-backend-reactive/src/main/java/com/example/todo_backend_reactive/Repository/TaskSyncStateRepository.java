@@ -0,0 +1,22 @@
+package com.example.todo_backend_reactive.Repository;
+
+import com.example.todo_backend_reactive.Entity.TaskSyncState;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface TaskSyncStateRepository extends R2dbcRepository<TaskSyncState, Long> {
+
+    // Reserves `count` consecutive versions and returns the highest one; the row stays locked
+    // until commit, same statement as in todo-backend
+    @Query("INSERT INTO task_sync_state (user_id, version, purged_version) VALUES (:userId, :count, 0) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = task_sync_state.version + :count " +
+            "RETURNING version")
+    Mono<Long> reserveVersions(Long userId, int count);
+
+    // Same payload todo-backend's TaskEventHub sends; PostgreSQL delivers it on commit
+    @Query("SELECT 1 FROM pg_notify('task_changes', json_build_object('userId', :userId, 'version', :version)::text)")
+    Mono<Integer> notifyChange(Long userId, long version);
+}
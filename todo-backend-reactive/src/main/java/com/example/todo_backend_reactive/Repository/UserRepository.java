@@ -0,0 +1,22 @@
+package com.example.todo_backend_reactive.Repository;
+
+import com.example.todo_backend_reactive.Entity.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRepository extends R2dbcRepository<User, Long> {
+
+    // Only needed for tokens issued before the user id claim existed
+    @Query("SELECT id FROM users WHERE email = :email")
+    Mono<Long> findIdByEmail(String email);
+
+    // Current token version, compared with the "ver" claim of every token (see todo-backend's JwtAuthenticationFilter)
+    @Query("SELECT token_version FROM users WHERE id = :id")
+    Mono<Integer> findTokenVersionById(Long id);
+
+    @Query("SELECT token_version FROM users WHERE email = :email")
+    Mono<Integer> findTokenVersionByEmail(String email);
+}
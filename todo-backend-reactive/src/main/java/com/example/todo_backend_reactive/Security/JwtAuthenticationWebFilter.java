@@ -0,0 +1,48 @@
+package com.example.todo_backend_reactive.Security;
+
+import com.example.todo_backend_reactive.Repository.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of todo-backend's JwtAuthenticationFilter: a valid bearer token whose
+// version still matches the user's puts the principal into the Reactor context for the rest of
+// the chain, anything else passes through unauthenticated and is rejected by the authorization
+// rules. Not a bean on purpose, so WebFlux does not also register it outside the security chain
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            AuthenticatedUser user = jwtUtil.verifyToken(authHeader.substring(7));
+            if (user != null) {
+                // There is no user cache here, so this is one primary-key read per request; a deleted
+                // user or one whose version was bumped (todo-backend does on account deletion) gets nothing
+                Mono<Integer> currentVersion = user.getUserId() != null
+                        ? userRepository.findTokenVersionById(user.getUserId())
+                        : userRepository.findTokenVersionByEmail(user.getEmail());
+                return currentVersion
+                        .map(version -> version == user.getTokenVersion())
+                        .defaultIfEmpty(false)
+                        .flatMap(current -> current
+                                ? chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                                        new UsernamePasswordAuthenticationToken(user, null, null)))
+                                : chain.filter(exchange));
+            }
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.todo_backend_reactive.Security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Verifies tokens issued by todo-backend (same secret, same claims); this service never issues any
+@Component
+public class JwtUtil {
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+    // Tokens issued before the claim existed count as version 1, the initial users.token_version
+    private static final int LEGACY_TOKEN_VERSION = 1;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
+    }
+
+    // Checks signature and expiry; returns null when the token is invalid. HMAC verification is
+    // cheap enough to run on the event loop
+    public AuthenticatedUser verifyToken(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                tokenVersion != null ? tokenVersion.intValue() : LEGACY_TOKEN_VERSION);
+    }
+}
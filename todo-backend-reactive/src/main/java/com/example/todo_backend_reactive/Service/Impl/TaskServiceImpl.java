@@ -0,0 +1,83 @@
+package com.example.todo_backend_reactive.Service.Impl;
+
+import com.example.todo_backend_reactive.DTOs.TaskRequestDTO;
+import com.example.todo_backend_reactive.DTOs.TaskResponseDTO;
+import com.example.todo_backend_reactive.Exception.UserException;
+import com.example.todo_backend_reactive.Repository.TaskRepository;
+import com.example.todo_backend_reactive.Repository.TaskSyncStateRepository;
+import com.example.todo_backend_reactive.Service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Every write is a single statement that also checks ownership, preceded by reserving its change
+// version; a missing task rolls the reservation back with the rest of the transaction. Archived
+// tasks are restored to the hot table first, after the version reservation so the user's
+// task_sync_state row is locked before their tasks, the order todo-backend's archiver takes them in.
+// When the task is not archived the restore is one primary key probe in the user's archive partition
+@Service
+public class TaskServiceImpl implements TaskService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSyncStateRepository taskSyncStateRepository;
+
+    // On when todo-backend runs with app.pg-notify.enabled, so its event streams see writes made here
+    @Value("${app.pg-notify.enabled:false}")
+    private boolean notifyChanges;
+
+    @Override
+    @Transactional
+    public Mono<TaskResponseDTO> createTask(TaskRequestDTO taskRequestDTO, Long userId) {
+        return reserveVersion(userId)
+                .flatMap(version -> taskRepository.insertTask(userId, taskRequestDTO.getTitle(),
+                        taskRequestDTO.getDescription(), LocalDateTime.now(), version));
+    }
+
+    @Override
+    public Flux<TaskResponseDTO> getAllTasksByUser(Long userId) {
+        return taskRepository.findResponsesByUserId(userId);
+    }
+
+    @Override
+    public Mono<TaskResponseDTO> getTaskById(Long taskId, Long userId) {
+        return taskRepository.findResponseByIdAndUserId(taskId, userId)
+                .switchIfEmpty(taskRepository.findArchivedResponseByIdAndUserId(taskId, userId))
+                .switchIfEmpty(Mono.error(() -> new UserException("Task not found or you don't have permission to view it.")));
+    }
+
+    @Override
+    @Transactional
+    public Mono<TaskResponseDTO> updateTask(Long taskId, TaskRequestDTO taskRequestDTO, Long userId) {
+        return reserveVersion(userId)
+                .flatMap(version -> taskRepository.restoreArchived(taskId, userId)
+                        .then(taskRepository.updateOwned(taskId, userId, taskRequestDTO.getTitle(),
+                                taskRequestDTO.getDescription(), taskRequestDTO.getCompleted(), LocalDateTime.now(), version)))
+                .switchIfEmpty(Mono.error(() -> new UserException("Task not found or you don't have permission to update it.")));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteTask(Long taskId, Long userId) {
+        return reserveVersion(userId)
+                .flatMap(version -> taskRepository.restoreArchived(taskId, userId)
+                        .then(taskRepository.tombstoneOwned(taskId, userId, LocalDateTime.now(), version)))
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new UserException("Task not found or you don't have permission to delete it."))
+                        : Mono.<Void>empty());
+    }
+
+    private Mono<Long> reserveVersion(Long userId) {
+        Mono<Long> reserved = taskSyncStateRepository.reserveVersions(userId, 1);
+        return notifyChanges
+                ? reserved.flatMap(version -> taskSyncStateRepository.notifyChange(userId, version).thenReturn(version))
+                : reserved;
+    }
+}
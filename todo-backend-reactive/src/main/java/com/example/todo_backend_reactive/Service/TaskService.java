@@ -0,0 +1,15 @@
+package com.example.todo_backend_reactive.Service;
+
+import com.example.todo_backend_reactive.DTOs.TaskRequestDTO;
+import com.example.todo_backend_reactive.DTOs.TaskResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking version of todo-backend's TaskService for the create/list/get/update/delete operations
+public interface TaskService {
+    Mono<TaskResponseDTO> createTask(TaskRequestDTO taskRequestDTO, Long userId);
+    Flux<TaskResponseDTO> getAllTasksByUser(Long userId);
+    Mono<TaskResponseDTO> getTaskById(Long taskId, Long userId);
+    Mono<TaskResponseDTO> updateTask(Long taskId, TaskRequestDTO taskRequestDTO, Long userId);
+    Mono<Void> deleteTask(Long taskId, Long userId);
+}
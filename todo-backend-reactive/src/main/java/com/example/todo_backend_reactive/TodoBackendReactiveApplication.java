@@ -0,0 +1,13 @@
+package com.example.todo_backend_reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class TodoBackendReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(TodoBackendReactiveApplication.class, args);
+	}
+
+}
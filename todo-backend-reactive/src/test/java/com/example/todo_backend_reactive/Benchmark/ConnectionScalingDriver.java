@@ -0,0 +1,169 @@
+package com.example.todo_backend_reactive.Benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Holds `clients` concurrent connections (default 5000) open against a running server, each
+// streaming GET /api/tasks/all in a closed loop, and samples the server's own metrics every
+// second: live JVM threads and database connections in use / waiting (Hikari for todo-backend,
+// r2dbc-pool for this module). Run it with the same arguments against todo-backend's
+// LoadTestServer (port 9090) and ReactiveLoadTestServer (port 9091) to compare the two stacks.
+// Run from todo-backend-reactive with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend_reactive.Benchmark.ConnectionScalingDriver
+//   -Dexec.args="<user id> [clients=5000] [seconds=30] [baseUrl=http://localhost:9091] [tasks=20]"
+// The client itself is non-blocking, but 5000 sockets need `ulimit -n` well above 5000 on both ends
+public class ConnectionScalingDriver {
+
+    public static void main(String[] args) {
+        long userId = Long.parseLong(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String baseUrl = args.length > 3 ? args[3] : "http://localhost:9091";
+        int tasks = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        String authorization = "Bearer " + Jwts.builder()
+                .setSubject("load@example.com")
+                .claim("uid", userId)
+                .claim("ver", 1)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(ReactiveLoadTestServer.SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+        ConnectionProvider provider = ConnectionProvider.builder("load")
+                .maxConnections(clients)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)
+                        .responseTimeout(Duration.ofSeconds(60))))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, authorization)
+                .build();
+
+        // Give the list something to stream
+        Flux.range(0, tasks)
+                .concatMap(i -> client.post().uri("/api/tasks/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("title", "load " + i, "description", "generated"))
+                        .retrieve()
+                        .toBodilessEntity())
+                .blockLast();
+
+        // Short warm-up so JIT and pool start-up do not land in the measurement
+        run(client, Math.min(clients, 50), TimeUnit.SECONDS.toNanos(5), new Recorder());
+
+        Peaks peaks = new Peaks();
+        Flux.interval(Duration.ofSeconds(1))
+                .take(Duration.ofSeconds(seconds))
+                .onBackpressureDrop()
+                .concatMap(tick -> sample(client, peaks))
+                .subscribe();
+        Recorder recorder = new Recorder();
+        long started = System.nanoTime();
+        run(client, clients, TimeUnit.SECONDS.toNanos(seconds), recorder);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = recorder.sorted();
+        System.out.printf("clients=%d requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, latencies.length, recorder.errors.get(), latencies.length / elapsed);
+        System.out.printf("latency ms: p50=%.2f p99=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        System.out.printf("server peaks: live threads=%d, db connections in use=%d, waiting for a db connection=%d%n",
+                peaks.threads.get(), peaks.connectionsInUse.get(), peaks.connectionsPending.get());
+        provider.disposeLater().block();
+    }
+
+    private static void run(WebClient client, int clients, long durationNanos, Recorder recorder) {
+        long deadline = System.nanoTime() + durationNanos;
+        Flux.range(0, clients)
+                .flatMap(i -> Mono.defer(() -> timedRequest(client, recorder))
+                        .repeat(() -> System.nanoTime() < deadline), clients)
+                .blockLast();
+    }
+
+    private static Mono<Void> timedRequest(WebClient client, Recorder recorder) {
+        long start = System.nanoTime();
+        return client.get().uri("/api/tasks/all")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> recorder.record(System.nanoTime() - start))
+                .onErrorResume(e -> {
+                    recorder.errors.incrementAndGet();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static Mono<Void> sample(WebClient client, Peaks peaks) {
+        return Mono.when(
+                metric(client, "jvm.threads.live").doOnNext(v -> peaks.threads.accumulateAndGet(v, Math::max)),
+                metric(client, "r2dbc.pool.acquired")
+                        .switchIfEmpty(metric(client, "hikaricp.connections.active"))
+                        .doOnNext(v -> peaks.connectionsInUse.accumulateAndGet(v, Math::max)),
+                metric(client, "r2dbc.pool.pending")
+                        .switchIfEmpty(metric(client, "hikaricp.connections.pending"))
+                        .doOnNext(v -> peaks.connectionsPending.accumulateAndGet(v, Math::max)));
+    }
+
+    // Value of a gauge from /actuator/metrics; empty when the server does not have it
+    private static Mono<Long> metric(WebClient client, String name) {
+        return client.get().uri("/actuator/metrics/{name}", name)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("measurements").path(0).path("value").asLong())
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Peaks {
+        final AtomicLong threads = new AtomicLong();
+        final AtomicLong connectionsInUse = new AtomicLong();
+        final AtomicLong connectionsPending = new AtomicLong();
+    }
+
+    private static final class Recorder {
+        final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1 << 16];
+        private int count;
+
+        synchronized void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
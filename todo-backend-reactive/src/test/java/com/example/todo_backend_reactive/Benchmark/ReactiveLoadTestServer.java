@@ -0,0 +1,60 @@
+package com.example.todo_backend_reactive.Benchmark;
+
+import com.example.todo_backend_reactive.TodoBackendReactiveApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Reactive counterpart of todo-backend's LoadTestServer: embedded PostgreSQL (no Docker) migrated
+// with todo-backend's Flyway scripts, the WebFlux application on top, and one seeded user.
+// Run from todo-backend-reactive with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend_reactive.Benchmark.ReactiveLoadTestServer -Dexec.args="[port=9091]"
+// Embedded PostgreSQL refuses to run as root
+public class ReactiveLoadTestServer {
+
+    // Same secret as todo-backend's JwtFilterBenchmark, so one ConnectionScalingDriver command line fits both servers
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9091;
+
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("filesystem:../todo-backend/src/main/resources/db/migration")
+                .load()
+                .migrate();
+        long userId;
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("INSERT INTO users (name, email, number, enabled, password, created_at) " +
+                     "VALUES ('Load Test', 'load@example.com', '9000000000', true, 'x', now()) RETURNING id")) {
+            rs.next();
+            userId = rs.getLong(1);
+        }
+
+        ConfigurableApplicationContext context = SpringApplication.run(TodoBackendReactiveApplication.class,
+                "--spring.profiles.active=loadtest",
+                "--server.port=" + port,
+                "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                "--spring.r2dbc.username=postgres",
+                "--spring.r2dbc.password=postgres",
+                "--jwt.secret=" + SECRET,
+                "--app.cors.allowedOrigin=http://localhost");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            context.close();
+            try {
+                postgres.close();
+            } catch (Exception ignored) {
+                // shutting down anyway
+            }
+        }));
+
+        System.out.printf("Ready on port %d; run ConnectionScalingDriver with user id %d%n", port, userId);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.todo_backend_reactive.Controller;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the shared task API contract against the WebFlux application, on a schema built from
+// todo-backend's migrations. Needs Docker; skipped when it is not available
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=" + TaskApiContractTest.JWT_SECRET,
+        "app.cors.allowedOrigin=http://localhost"
+})
+class TaskControllerFunctionalTest extends TaskApiContractTest {
+
+    static final String MIGRATIONS = "filesystem:../todo-backend/src/main/resources/db/migration";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void r2dbc(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getFirstMappedPort() + "/" + postgres.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations(MIGRATIONS)
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Reactive only: the list can also be consumed one JSON document per line
+    @Test
+    void listStreamsNdjsonWhenAsked() {
+        String authorization = bearerForNewUser();
+        for (int i = 0; i < 3; i++) {
+            createTask(authorization, "Streamed " + i);
+        }
+
+        List<Map> tasks = webTestClient.get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Map.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(tasks).extracting(task -> task.get("title"))
+                .containsExactly("Streamed 0", "Streamed 1", "Streamed 2");
+    }
+
+    // todo-backend's archiver moves long-completed tasks out of the hot table; they must still
+    // resolve here, and writes bring them back
+    @Test
+    void archivedTasksAreStillReadUpdatedAndDeleted() {
+        String authorization = bearerForNewUser();
+        long id = createTask(authorization, "Done long ago");
+        archive(id);
+
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Done long ago")
+                .jsonPath("$.completed").isEqualTo(true);
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearerForNewUser())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client().put().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Reopened", "completed", false))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Reopened")
+                .jsonPath("$.completed").isEqualTo(false);
+        assertThat(count("SELECT count(*) FROM tasks_archive WHERE id = :id", id)).isZero();
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo("Reopened");
+
+        archive(id);
+        client().delete().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(count("SELECT count(*) FROM tasks_archive WHERE id = :id", id)).isZero();
+        // Left as a tombstone for delta sync, like any other delete
+        assertThat(count("SELECT count(*) FROM tasks WHERE id = :id AND deleted", id)).isOne();
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    // The same move todo-backend's TaskArchiveRepository makes, for a single task
+    private void archive(long id) {
+        databaseClient.sql("WITH moved AS (DELETE FROM tasks WHERE id = :id RETURNING id, title, description, " +
+                        "created_at, updated_at, change_version, version, user_id) " +
+                        "INSERT INTO tasks_archive (id, title, description, created_at, updated_at, change_version, " +
+                        "version, user_id, archived_at) SELECT *, now() FROM moved")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .block();
+    }
+
+    private long count(String sql, long id) {
+        return databaseClient.sql(sql)
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    @Override
+    protected WebTestClient client() {
+        return webTestClient;
+    }
+
+    @Override
+    protected long createUser(String email, String number) {
+        return databaseClient.sql("INSERT INTO users (name, email, number, enabled, password, created_at) " +
+                        "VALUES ('Test User', :email, :number, true, 'x', now()) RETURNING id")
+                .bind("email", email)
+                .bind("number", number)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.todo_backend.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int emailOutboxWorkers;
+
+    @Value("${app.tasks.stream.workers:2}")
+    private int taskEventWorkers;
+
+    @Value("${app.tasks.stream.send-workers:16}")
+    private int taskStreamSendWorkers;
+
+    @Value("${app.users.deletion.workers:1}")
+    private int accountDeletionWorkers;
+
+    @Value("${app.password.hash.concurrency:2}")
+    private int passwordHashConcurrency;
+
+    @Value("${app.password.hash.queue-capacity:32}")
+    private int passwordHashQueueCapacity;
+
+    // Bounded pool for SMTP delivery so a slow relay never holds request threads. With virtual
+    // threads the sends are plain blocking I/O on cheap threads, capped by the same worker count
+    @Bean
+    public AsyncTaskExecutor emailOutboxExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-outbox-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(emailOutboxWorkers);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailOutboxWorkers);
+        executor.setMaxPoolSize(emailOutboxWorkers);
+        executor.setQueueCapacity(emailOutboxWorkers);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Workers that read task changes for open streams. Work is queued per user with changes, not
+    // per connection, so a couple of threads serve every stream on the node. Submissions come from
+    // committing request threads and the LISTEN loop, so they must never block: the virtual-thread
+    // variant has no concurrency limit (which would make execute() wait for a slot), as the
+    // per-user draining flag already allows at most one catch-up per user with open streams
+    @Bean
+    public AsyncTaskExecutor taskEventExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-events-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(taskEventWorkers);
+        executor.setMaxPoolSize(taskEventWorkers);
+        executor.setThreadNamePrefix("task-events-");
+        return executor;
+    }
+
+    // Writes queued events to the streams' sockets, one flush per stream at a time. A client that
+    // stops reading blocks one of these threads until TaskEventHub drops it, so there are more of
+    // them than catch-up workers; with virtual threads a blocked write costs next to nothing
+    @Bean
+    public AsyncTaskExecutor taskStreamSendExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-stream-send-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(taskStreamSendWorkers);
+        executor.setMaxPoolSize(taskStreamSendWorkers);
+        executor.setThreadNamePrefix("task-stream-send-");
+        return executor;
+    }
+
+    // Background deletions of large accounts; one at a time keeps their load on the database
+    // small next to regular traffic, further deletions wait in the queue
+    @Bean
+    public ThreadPoolTaskExecutor accountDeletionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(accountDeletionWorkers);
+        executor.setMaxPoolSize(accountDeletionWorkers);
+        executor.setThreadNamePrefix("account-deletion-");
+        return executor;
+    }
+
+    // Caps the cores password hashing can take; submissions beyond the queue are rejected.
+    // Hashing is CPU-bound, so this stays on platform threads even in virtual-thread mode
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashConcurrency);
+        executor.setMaxPoolSize(passwordHashConcurrency);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+}
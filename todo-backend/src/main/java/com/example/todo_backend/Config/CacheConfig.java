@@ -0,0 +1,14 @@
+package com.example.todo_backend.Config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed and sized through spring.cache.* in application.properties;
+// naming them there lets Boot register their hit/miss/eviction metrics at startup
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+}
@@ -0,0 +1,41 @@
+package com.example.todo_backend.Config;
+
+import com.example.todo_backend.Observability.StatementCountFilter;
+import com.example.todo_backend.Observability.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Metrics and tracing come from Actuator (http.server.requests, hikaricp.*, spring.data.repository.*)
+// and the application's own meters; this adds the per-request SQL statement count on top
+@Configuration
+public class ObservabilityConfig {
+
+    // Requests running more statements than this are logged at WARN
+    @Value("${app.observability.statements.warn-threshold:20}")
+    private int statementWarnThreshold;
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+            // Instantiated by Hibernate for every session; the counts live in a thread local
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementCounter.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry, statementWarnThreshold));
+        // Inside the HTTP observation filter (HIGHEST_PRECEDENCE + 1) so its span is still open,
+        // and ahead of Spring Security
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
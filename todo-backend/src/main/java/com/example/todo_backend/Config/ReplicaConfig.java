@@ -0,0 +1,77 @@
+package com.example.todo_backend.Config;
+
+import com.example.todo_backend.Persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas, switched on by listing them in app.datasource.replicas.urls. The primary pool is
+// then built here from spring.datasource.* the way Boot would, and the application's DataSource
+// becomes the routing one; without replicas Boot's single pool is used unchanged
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class ReplicaConfig {
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${app.datasource.replicas.pool-size:10}")
+    private int poolSize;
+
+    // Replicas further behind than this are skipped until they catch up
+    @Value("${app.datasource.replicas.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    // Should exceed max-lag-ms plus the check interval, so the replica a pinned user is sent back
+    // to has replayed their write
+    @Value("${app.datasource.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Replica pools copy the primary's settings; they start empty so a replica that is down does
+    // not stop the application, the health check just keeps reads away from it
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(Math.min(poolSize, primaryDataSource.getMinimumIdle()));
+            config.setInitializationFailTimeout(-1);
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaRoutingDataSource.Replica(config.getPoolName(), new HikariDataSource(config)));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMs,
+                Duration.ofMillis(readYourWritesMs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
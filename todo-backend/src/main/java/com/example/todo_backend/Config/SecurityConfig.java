@@ -1,14 +1,23 @@
 package com.example.todo_backend.Config;
 
+import com.example.todo_backend.Security.BoundedPasswordEncoder;
 import com.example.todo_backend.Security.JwtAuthenticationFilter;
+import com.example.todo_backend.Security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -17,6 +26,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class SecurityConfig {
@@ -24,20 +34,41 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Value("${app.cors.allowedOrigin}")
     private String allowedOrigin;
 
+    // Encoder for new hashes: "bcrypt" or "argon2". Stored hashes of the other kind, or bcrypt
+    // hashes below the configured strength, are rehashed on the next successful login
+    @Value("${app.password.encoding-id:bcrypt}")
+    private String passwordEncodingId;
+
+    @Value("${app.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.password.hash.queue-timeout-ms:2000}")
+    private long passwordHashQueueTimeoutMs;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception{
         http
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth->auth
+                        // The request that started an event stream or export was already authorised;
+                        // the async dispatch that ends it carries no token of its own
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Probes and the Prometheus scraper carry no token. Actuator is only served on
+                        // management.server.port, which must stay off the public ingress
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         // Update permitAll paths
                         .requestMatchers("/api/users/register", "/api/users/login", "/api/users/verify-otp", "/api/users/login-otp", "/api/users/login-verify-otp", "/api/users/resend-otp").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
@@ -46,7 +77,8 @@ public class SecurityConfig {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(List.of(allowedOrigin));
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-Match", "If-None-Match", "Last-Event-ID"));
+        cfg.setExposedHeaders(List.of("ETag"));
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -55,7 +87,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor,
+                                           MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordEncodingId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain bcrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, passwordHashExecutor, passwordHashQueueTimeoutMs, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.todo_backend.Config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Binary representations of the API for clients that ask for them with Accept / Content-Type:
+// application/cbor and application/x-jackson-smile. Same DTOs and endpoints as JSON, but
+// timestamps are epoch millis and null fields are left out. Boot keeps these converters after
+// the JSON one, so requests without a preference still get JSON
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    // Smile refers back to property names it already wrote, so a long list pays for each name once
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+    }
+
+    // The builder is Boot's (a fresh prototype per injection point), so modules and
+    // spring.jackson.* settings match the JSON mapper
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.createXmlMapper(false)
+                .factory(factory)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                // Registered after the JavaTimeModule, so these take precedence for LocalDateTime
+                .postConfigurer(mapper -> mapper.registerModule(epochMillisModule()))
+                .build();
+    }
+
+    // Timestamps come from LocalDateTime.now(), so they are read as times in the JVM's zone
+    private static SimpleModule epochMillisModule() {
+        ZoneId zone = ZoneId.systemDefault();
+        SimpleModule module = new SimpleModule("EpochMillis");
+        module.addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                gen.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+            }
+        });
+        module.addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                    return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+                }
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), zone);
+            }
+        });
+        return module;
+    }
+}
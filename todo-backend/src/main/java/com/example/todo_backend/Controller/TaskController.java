@@ -1,14 +1,33 @@
 package com.example.todo_backend.Controller;
 
+import com.example.todo_backend.DTOs.TaskBatchRequestDTO;
+import com.example.todo_backend.DTOs.TaskBatchResultDTO;
+import com.example.todo_backend.DTOs.TaskChangesResponseDTO;
+import com.example.todo_backend.DTOs.TaskPageResponseDTO;
 import com.example.todo_backend.DTOs.TaskRequestDTO;
 import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSearchCriteria;
+import com.example.todo_backend.DTOs.TaskSearchResponseDTO;
+import com.example.todo_backend.DTOs.TaskSummaryDTO;
+import com.example.todo_backend.DTOs.UserSnapshot;
+import com.example.todo_backend.Exception.PreconditionFailedException;
+import com.example.todo_backend.Exception.UserException;
+import com.example.todo_backend.Security.AuthenticatedUser;
+import com.example.todo_backend.Service.TaskEventHub;
 import com.example.todo_backend.Service.TaskService;
+import com.example.todo_backend.Service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import java.util.List;
@@ -18,47 +37,189 @@ import java.util.List;
 @CrossOrigin(origins = "${app.cors.allowedOrigin}")
 public class TaskController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     private TaskService taskService;
 
-    // Get the email of the currently authenticated user from the security context
-    private String getCurrentUserEmail() {
-        return SecurityContextHolder.getContext().getAuthentication().getName();
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskEventHub taskEventHub;
+
+    // Get the id of the currently authenticated user from the JWT principal; only tokens
+    // issued before the id claim existed need a lookup by email
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return userService.findSnapshotByEmail(principal.getEmail())
+                .map(UserSnapshot::getId)
+                .orElseThrow(() -> new UserException("User not found."));
+    }
+
+    // Strong ETags: a task's is its @Version, the task list's is the user's change counter
+    // (task_sync_state), which every write bumps. no-cache lets browsers keep the response but
+    // makes them revalidate it with If-None-Match on every poll. The tag names the version, not the
+    // bytes, so JSON, CBOR and Smile share it; Vary: Accept keeps caches from mixing them up
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // The list is only ever revalidated, never sent back in If-Match, so its tag can be weak, which
+    // is what lets Tomcat gzip it (compression skips responses with a strong ETag)
+    private static String weakETag(long version) {
+        return "W/" + eTag(version);
+    }
+
+    // Version named by an If-Match header; null when absent or "*" (any current version)
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // not one of ours
+            }
+        }
+        // Weak, foreign or multiple tags never match under the strong comparison If-Match requires
+        throw new PreconditionFailedException("Task has changed since it was read, reload it and try again.");
     }
 
     @PostMapping("/create")
     public ResponseEntity<TaskResponseDTO> createTask(@Valid @RequestBody TaskRequestDTO taskRequestDTO) {
-        String userEmail = getCurrentUserEmail();
-        TaskResponseDTO createdTask = taskService.createTask(taskRequestDTO, userEmail);
-        return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
+        Long userId = getCurrentUserId();
+        TaskResponseDTO createdTask = taskService.createTask(taskRequestDTO, userId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(eTag(createdTask.getVersion()))
+                .body(createdTask);
     }
 
+    // checkNotModified writes the ETag header and, on a match, the 304 itself. The version is read
+    // before the list, so a write committed in between can only make the body newer than its ETag,
+    // which costs one extra download on the next poll and never a stale 304.
+    // includeArchived adds the completed tasks the archiver has moved out of the hot table
     @GetMapping("/all")
-    public ResponseEntity<List<TaskResponseDTO>> getAllTasks() {
-        String userEmail = getCurrentUserEmail();
-        List<TaskResponseDTO> tasks = taskService.getAllTasksByUser(userEmail);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponseDTO>> getAllTasks(@RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived,
+                                                             WebRequest request) {
+        Long userId = getCurrentUserId();
+        if (request.checkNotModified(weakETag(taskService.getCollectionVersion(userId)))) {
+            return null;
+        }
+        List<TaskResponseDTO> tasks = taskService.getAllTasksByUser(userId, includeArchived);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(tasks);
+    }
+
+    // Lightweight list view without descriptions
+    @GetMapping("/summaries")
+    public ResponseEntity<List<TaskSummaryDTO>> getTaskSummaries() {
+        Long userId = getCurrentUserId();
+        List<TaskSummaryDTO> summaries = taskService.getTaskSummaries(userId);
+        return ResponseEntity.ok(summaries);
+    }
+
+    // Keyset-paginated listing; pass the returned nextCursor to fetch the following page
+    @GetMapping
+    public ResponseEntity<TaskPageResponseDTO> getTaskPage(@RequestParam(name = "cursor", required = false) String cursor,
+                                                           @RequestParam(name = "size", required = false) Integer size) {
+        Long userId = getCurrentUserId();
+        TaskPageResponseDTO page = taskService.getTaskPage(userId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Ranked full-text search over title and description with optional completion and date
+    // filters, e.g. /api/tasks/search?q=invoice&completed=false&createdFrom=2025-01-01T00:00:00
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchResponseDTO> searchTasks(TaskSearchCriteria criteria) {
+        Long userId = getCurrentUserId();
+        TaskSearchResponseDTO results = taskService.searchTasks(userId, criteria);
+        return ResponseEntity.ok(results);
+    }
+
+    // Delta sync: tasks created, updated or deleted after the given version. since=0 returns every live task
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponseDTO> getChanges(@RequestParam(name = "since", defaultValue = "0") long since,
+                                                             @RequestParam(name = "limit", required = false) Integer limit) {
+        Long userId = getCurrentUserId();
+        TaskChangesResponseDTO changes = taskService.getChangesSince(userId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    // Server-sent events for every change to the caller's tasks, replacing polling of /all. The
+    // first event ("ready") carries the version the stream starts after; Last-Event-ID resumes
+    // after an earlier event instead, replaying what was missed from the change feed
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Long userId = getCurrentUserId();
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Not one of ours; the hub tells the client to resync
+                resumeAfter = -1L;
+            }
+        }
+        return taskEventHub.subscribe(userId, resumeAfter);
+    }
+
+    // Streams every task as newline-delimited JSON without buffering the full list
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        Long userId = getCurrentUserId();
+        StreamingResponseBody body = outputStream -> taskService.exportTasksByUser(userId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable(name = "id") Long taskId) {
-        String userEmail = getCurrentUserEmail();
-        TaskResponseDTO task = taskService.getTaskById(taskId, userEmail);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable(name = "id") Long taskId, WebRequest request) {
+        Long userId = getCurrentUserId();
+        // The ETag comes from the loaded body itself, so the two always describe the same version
+        TaskResponseDTO task = taskService.getTaskById(taskId, userId);
+        if (request.checkNotModified(eTag(task.getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(task);
     }
 
+    // With If-Match the update only applies if the task is still at that version, otherwise 412
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponseDTO> updateTask(@PathVariable(name = "id") Long taskId,
-                                                      @Valid @RequestBody TaskRequestDTO taskRequestDTO) {
-        String userEmail = getCurrentUserEmail();
-        TaskResponseDTO updatedTask = taskService.updateTask(taskId, taskRequestDTO, userEmail);
-        return ResponseEntity.ok(updatedTask);
+                                                      @Valid @RequestBody TaskRequestDTO taskRequestDTO,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long userId = getCurrentUserId();
+        TaskResponseDTO updatedTask = taskService.updateTask(taskId, taskRequestDTO, userId, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedTask.getVersion()))
+                .body(updatedTask);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable(name = "id") Long taskId) {
-        String userEmail = getCurrentUserEmail();
-        taskService.deleteTask(taskId, userEmail);
+    public ResponseEntity<?> deleteTask(@PathVariable(name = "id") Long taskId,
+                                        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long userId = getCurrentUserId();
+        taskService.deleteTask(taskId, userId, expectedVersion(ifMatch));
         return ResponseEntity.ok(Collections.singletonMap("message", "Task deleted successfully."));
     }
+
+    // Applies a list of create/update/complete/delete operations in one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResultDTO>> applyBatch(@Valid @RequestBody TaskBatchRequestDTO batchRequestDTO) {
+        Long userId = getCurrentUserId();
+        List<TaskBatchResultDTO> results = taskService.applyBatch(batchRequestDTO.getOperations(), userId);
+        return ResponseEntity.ok(results);
+    }
 }
\ No newline at end of file
@@ -5,19 +5,22 @@ import com.example.todo_backend.Entity.User;
 import com.example.todo_backend.Exception.UserException;
 import com.example.todo_backend.Repository.UserRepository;
 import com.example.todo_backend.Security.JwtUtil;
+import com.example.todo_backend.Service.AccountDeletionService;
 import com.example.todo_backend.Service.EmailService;
 import com.example.todo_backend.Service.OtpService;
+import com.example.todo_backend.Service.UserCacheInvalidator;
 import com.example.todo_backend.Service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.net.URI;
 import java.util.Collections;
 import java.util.Map;
 
@@ -39,7 +42,11 @@ public class UserController {
     @Autowired
     private OtpService otpService;
     @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
     private EmailService emailService;
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
 
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationDTO registrationDTO) {
@@ -57,18 +64,12 @@ public class UserController {
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Account is already verified."));
         }
 
-        if (user.getOtp() == null || !user.getOtp().equals(verificationDTO.getOtp())) {
-            throw new UserException("Invalid OTP.");
-        }
-
-        if (!otpService.isOtpValid(user.getOtpGeneratedTime())) {
-            throw new UserException("OTP has expired. Please request a new one.");
-        }
+        checkOtp(OtpService.Purpose.ACCOUNT_VERIFICATION, verificationDTO,
+                "OTP has expired. Please request a new one.");
 
         user.setEnabled(true);
-        user.setOtp(null); // Clear OTP after successful verification
-        user.setOtpGeneratedTime(null);
         userRepository.save(user);
+        userCacheInvalidator.invalidate(user.getId(), user.getEmail());
 
         return ResponseEntity.ok(Collections.singletonMap("message", "Account verified successfully. You can now log in."));
     }
@@ -76,8 +77,7 @@ public class UserController {
     @PostMapping("/login-otp")
     @Transactional
     public ResponseEntity<?> loginStep1_SendOtp(@Valid @RequestBody UserLoginDTO login) {
-        User user = userRepository.findByEmail(login.getEmailOrNumber())
-                .or(() -> userRepository.findByNumber(login.getEmailOrNumber()))
+        User user = userRepository.findByLogin(login.getEmailOrNumber())
                 .orElseThrow(() -> new UserException("Invalid credentials"));
 
         if (!user.isEnabled()) {
@@ -87,11 +87,13 @@ public class UserController {
         if (!passwordEncoder.matches(login.getPassword(), user.getPassword())) {
             throw new UserException("Invalid credentials");
         }
+        // The raw password is only available here, so move outdated hashes to the current encoder now
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(login.getPassword()));
+            userRepository.save(user);
+        }
 
-        String otp = otpService.generateOtp();
-        user.setOtp(otp);
-        user.setOtpGeneratedTime(LocalDateTime.now());
-        userRepository.save(user);
+        String otp = otpService.issueOtp(OtpService.Purpose.LOGIN, user.getEmail());
         emailService.sendOtpEmail(user.getEmail(), user.getName(), otp);
 
         return ResponseEntity.ok(Collections.singletonMap("message", "OTP sent to your email for login verification."));
@@ -99,22 +101,13 @@ public class UserController {
 
     @PostMapping("/login-verify-otp")
     public ResponseEntity<?> loginStep2_VerifyOtpAndGetToken(@Valid @RequestBody OtpVerificationDTO verificationDTO) {
-        User user = userRepository.findByEmail(verificationDTO.getEmail())
+        // Nothing is written on this path, so the cached snapshot is enough
+        UserSnapshot user = userService.findSnapshotByEmail(verificationDTO.getEmail())
                 .orElseThrow(() -> new UserException("User not found."));
 
-        if (user.getOtp() == null || !user.getOtp().equals(verificationDTO.getOtp())) {
-            throw new UserException("Invalid OTP.");
-        }
-
-        if (!otpService.isOtpValid(user.getOtpGeneratedTime())) {
-            throw new UserException("OTP has expired. Please try logging in again.");
-        }
+        checkOtp(OtpService.Purpose.LOGIN, verificationDTO, "OTP has expired. Please try logging in again.");
 
-        user.setOtp(null); // Clear OTP
-        user.setOtpGeneratedTime(null);
-        userRepository.save(user);
-
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getTokenVersion());
         return ResponseEntity.ok(Collections.singletonMap("token", token));
     }
 
@@ -128,22 +121,27 @@ public class UserController {
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Account is already verified."));
         }
 
-        String otp = otpService.generateOtp();
-        user.setOtp(otp);
-        user.setOtpGeneratedTime(LocalDateTime.now());
-        userRepository.save(user);
-
+        String otp = otpService.issueOtp(OtpService.Purpose.ACCOUNT_VERIFICATION, user.getEmail());
         emailService.sendOtpEmail(user.getEmail(), user.getName(), otp);
 
         return ResponseEntity.ok(Collections.singletonMap("message", "A new OTP has been sent to your email."));
     }
 
+    private void checkOtp(OtpService.Purpose purpose, OtpVerificationDTO verificationDTO, String expiredMessage) {
+        switch (otpService.verifyOtp(purpose, verificationDTO.getEmail(), verificationDTO.getOtp())) {
+            case VALID -> { }
+            case INVALID -> throw new UserException("Invalid OTP.");
+            case EXPIRED -> throw new UserException(expiredMessage);
+            case TOO_MANY_ATTEMPTS -> throw new UserException("Too many incorrect attempts. Please request a new OTP.");
+        }
+    }
+
     // Your existing GET, PUT, DELETE endpoints
     // These now require a valid JWT token from the /login-verify-otp endpoint
 
     @GetMapping("/{email}")
     public ResponseEntity<UserResponseDTO> getUserByEmail(@PathVariable String email) {
-        User user = userService.findByEmail(email)
+        UserSnapshot user = userService.findSnapshotByEmail(email)
                 .orElseThrow(() -> new UserException("User not found with email: " + email));
 
         UserResponseDTO response = UserResponseDTO.builder()
@@ -160,9 +158,22 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    // Large accounts are deleted in the background: 202 with the job to poll
     @DeleteMapping("/{email}")
-    public ResponseEntity<String> deleteUser(@PathVariable String email) {
-        userService.deleteUserByEmail(email);
+    public ResponseEntity<?> deleteUser(@PathVariable String email) {
+        AccountDeletionDTO deletion = userService.deleteUserByEmail(email);
+        if (deletion.getState() == AccountDeletionDTO.State.RUNNING) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/users/deletions/" + deletion.getId()))
+                    .body(deletion);
+        }
         return ResponseEntity.ok("User with email " + email + " deleted successfully.");
     }
+
+    @GetMapping("/deletions/{id}")
+    public ResponseEntity<AccountDeletionDTO> getDeletion(@PathVariable String id) {
+        AccountDeletionDTO deletion = accountDeletionService.getJob(id)
+                .orElseThrow(() -> new UserException("Deletion job " + id + " not found."));
+        return ResponseEntity.ok(deletion);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Progress of an account deletion; large accounts are deleted in the background and polled
+// at /api/users/deletions/{id}
+@Data
+@Builder
+public class AccountDeletionDTO {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private String email;
+    private State state;
+    // Tasks the account had when the deletion started, tombstones included
+    private long tasksTotal;
+    private long tasksDeleted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.example.todo_backend.DTOs;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TaskBatchOperationDTO {
+
+    public enum Operation {
+        CREATE,
+        UPDATE,
+        COMPLETE,
+        DELETE
+    }
+
+    @NotNull(message = "Operation is required")
+    private Operation op;
+
+    // Required for UPDATE, COMPLETE and DELETE
+    private Long id;
+
+    // Required for CREATE and UPDATE
+    @Valid
+    private TaskRequestDTO task;
+}
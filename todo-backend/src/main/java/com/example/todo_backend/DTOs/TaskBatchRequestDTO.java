@@ -0,0 +1,14 @@
+package com.example.todo_backend.DTOs;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TaskBatchRequestDTO {
+    @NotEmpty(message = "At least one operation is required")
+    @Valid
+    private List<TaskBatchOperationDTO> operations;
+}
@@ -0,0 +1,24 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TaskBatchResultDTO {
+
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INVALID
+    }
+
+    // Position of the operation in the request
+    private int index;
+    private TaskBatchOperationDTO.Operation op;
+    private Long id;
+    private Status status;
+    private String error;
+    // Resulting task for CREATE and UPDATE
+    private TaskResponseDTO task;
+}
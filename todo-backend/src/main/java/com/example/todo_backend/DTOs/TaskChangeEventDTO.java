@@ -0,0 +1,25 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+// One entry of the task event stream; becomes an SSE event named after its type with the change
+// version as event id, which clients send back as Last-Event-ID to resume
+@Data
+@Builder
+public class TaskChangeEventDTO {
+
+    // First event of every stream; its id is the version the stream starts after
+    public static final String READY = "ready";
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    // Changes since the client's position were purged; it must reload the whole list
+    public static final String RESYNC = "resync";
+
+    private long version;
+    private String type;
+    private Long taskId;
+    // Current task for created and updated
+    private TaskResponseDTO task;
+}
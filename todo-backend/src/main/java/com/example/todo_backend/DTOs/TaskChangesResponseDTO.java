@@ -0,0 +1,18 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TaskChangesResponseDTO {
+    // Watermark to send as `since` on the next call
+    private long version;
+    private List<TaskResponseDTO> upserts;
+    private List<Long> deletions;
+    private boolean hasMore;
+    // Tombstones newer than `since` were purged; the client must drop its copy and sync from 0
+    private boolean fullResyncRequired;
+}
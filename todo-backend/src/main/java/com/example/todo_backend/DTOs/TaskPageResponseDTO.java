@@ -0,0 +1,14 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TaskPageResponseDTO {
+    private List<TaskResponseDTO> tasks;
+    private String nextCursor;
+    private boolean hasMore;
+}
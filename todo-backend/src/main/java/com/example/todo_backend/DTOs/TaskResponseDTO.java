@@ -1,11 +1,14 @@
 package com.example.todo_backend.DTOs;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDateTime;
 
+// The all-args constructor doubles as the target of the JPQL constructor projections in TaskRepository
 @Data
 @Builder
+@AllArgsConstructor
 public class TaskResponseDTO {
     private Long id;
     private String title;
@@ -13,4 +16,6 @@ public class TaskResponseDTO {
     private boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Same value as the task's ETag; send it back in If-Match to update or delete conditionally
+    private long version;
 }
\ No newline at end of file
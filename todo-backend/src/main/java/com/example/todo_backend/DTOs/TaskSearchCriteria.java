@@ -0,0 +1,41 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Query parameters of GET /api/tasks/search; every field is optional
+@Data
+public class TaskSearchCriteria {
+    public static final String SORT_RELEVANCE = "relevance";
+    public static final Set<String> SORT_FIELDS = Set.of(SORT_RELEVANCE, "createdAt", "updatedAt", "title");
+
+    // Search text in web-search syntax: words, "quoted phrases", -excluded words and OR
+    private String q;
+
+    private Boolean completed;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    // relevance (default when q is given), createdAt (default otherwise), updatedAt or title
+    private String sort;
+
+    // asc or desc; defaults to desc, except asc for title
+    private String direction;
+
+    private Integer page;
+
+    private Integer size;
+}
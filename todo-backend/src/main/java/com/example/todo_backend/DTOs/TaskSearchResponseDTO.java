@@ -0,0 +1,15 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TaskSearchResponseDTO {
+    private List<TaskResponseDTO> tasks;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
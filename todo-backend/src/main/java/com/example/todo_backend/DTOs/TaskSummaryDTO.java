@@ -0,0 +1,17 @@
+package com.example.todo_backend.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// List-view projection of a task: everything but the TEXT description
+@Data
+@AllArgsConstructor
+public class TaskSummaryDTO {
+    private Long id;
+    private String title;
+    private boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
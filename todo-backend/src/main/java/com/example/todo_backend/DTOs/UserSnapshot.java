@@ -0,0 +1,28 @@
+package com.example.todo_backend.DTOs;
+
+import com.example.todo_backend.Entity.User;
+import lombok.*;
+
+// Immutable copy of the user columns read on hot paths; safe to share through the user cache
+@Getter
+@Builder
+@AllArgsConstructor
+public class UserSnapshot {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String number;
+    private final boolean enabled;
+    private final int tokenVersion;
+
+    public static UserSnapshot of(User user) {
+        return UserSnapshot.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .number(user.getNumber())
+                .enabled(user.isEnabled())
+                .tokenVersion(user.getTokenVersion())
+                .build();
+    }
+}
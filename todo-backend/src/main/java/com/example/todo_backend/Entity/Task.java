@@ -3,19 +3,27 @@ package com.example.todo_backend.Entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_tasks_user_change_version", columnList = "user_id, change_version"),
+        @Index(name = "idx_tasks_user_completed_created", columnList = "user_id, completed, created_at"),
+        @Index(name = "idx_tasks_user_id", columnList = "user_id, id")
+})
 @Setter
 @Getter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Task {
+    // Pooled sequence allocation keeps JDBC insert batching possible, which IDENTITY disables
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,13 +32,31 @@ public class Task {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    private boolean completed = false;
+    private boolean completed;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    // Deleted tasks stay behind as tombstones so sync clients can learn about the deletion
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean deleted;
+
+    private LocalDateTime deletedAt;
+
+    // Per-user, strictly increasing number assigned on every change (see TaskSyncState)
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long changeVersion;
+
+    // Bumped on every change of this task; checked by Hibernate on update and served as the ETag
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
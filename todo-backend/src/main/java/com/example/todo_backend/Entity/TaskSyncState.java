@@ -0,0 +1,26 @@
+package com.example.todo_backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Per-user change counter for delta sync. Reserving versions upserts this row, which also
+// serialises concurrent writers of the same user so versions become visible in commit order
+@Entity
+@Table(name = "task_sync_state")
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskSyncState {
+    @Id
+    private Long userId;
+
+    // Highest change version handed out for this user's tasks
+    @Column(nullable = false)
+    private long version;
+
+    // Highest version of a tombstone that has been purged; clients behind it must resync fully
+    @Column(nullable = false)
+    private long purgedVersion;
+}
@@ -9,8 +9,8 @@ import java.util.List;
 
 @Entity
 @Table(name="users",uniqueConstraints = {
-        @UniqueConstraint(columnNames = "email"),
-        @UniqueConstraint(columnNames = "number")
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_number", columnNames = "number")
 })
 @Setter
 @Getter
@@ -29,14 +29,14 @@ public class User {
     @Column(nullable = false, unique = true)
     private String number;
     @Column(nullable = false)
-    private boolean enabled = false;
+    private boolean enabled;
     @Column(nullable = false)
     @JsonIgnore
     private String password;
-    @JsonIgnore
-    private String otp;
-    @JsonIgnore
-    private LocalDateTime otpGeneratedTime;
+    // Compared with the "ver" claim of every token; bumping it revokes the user's tokens
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 1;
     @Column(nullable = false,updatable = false)
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
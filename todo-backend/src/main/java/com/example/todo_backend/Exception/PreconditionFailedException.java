@@ -0,0 +1,8 @@
+package com.example.todo_backend.Exception;
+
+// Thrown when an If-Match header does not name the current version; mapped to 412
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
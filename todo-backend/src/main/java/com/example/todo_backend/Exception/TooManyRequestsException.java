@@ -0,0 +1,15 @@
+package com.example.todo_backend.Exception;
+
+// Thrown when a protected resource is saturated; mapped to 429 with a Retry-After header
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
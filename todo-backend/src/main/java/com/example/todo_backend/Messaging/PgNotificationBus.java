@@ -0,0 +1,157 @@
+package com.example.todo_backend.Messaging;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Cross-node messaging over PostgreSQL LISTEN/NOTIFY. Listening uses one dedicated connection
+// outside the Hikari pool; publishing is a plain pg_notify on the caller's connection, so a
+// notification sent inside a transaction is only delivered if that transaction commits
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.pg-notify.enabled", havingValue = "true")
+public class PgNotificationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${app.pg-notify.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    @Value("${app.pg-notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private volatile Connection listenConnection;
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listenLoop, "pg-notify-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+        closeQuietly(listenConnection);
+    }
+
+    public void subscribe(String channel, Consumer<String> handler) {
+        checkChannel(channel);
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                listen(connection, channel);
+            } catch (SQLException e) {
+                // The listener loop re-issues LISTEN for every channel when it reconnects
+                log.warn("LISTEN {} failed, will retry on reconnect", channel, e);
+            }
+        }
+    }
+
+    // Payloads are limited to just under 8000 bytes by PostgreSQL
+    public void publish(String channel, String payload) {
+        checkChannel(channel);
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                listenConnection = connection;
+                for (String channel : subscribers.keySet()) {
+                    listen(connection, channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    // Anything published while disconnected is lost; subscribers must tolerate that
+                    log.warn("LISTEN connection lost, reconnecting in {} ms", reconnectDelayMs, e);
+                    sleepBeforeReconnect();
+                }
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (Consumer<String> handler : subscribers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Handler for channel {} failed", channel, e);
+            }
+        }
+    }
+
+    private static void listen(Connection connection, String channel) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+    }
+
+    // LISTEN cannot take a bind parameter, so only plain identifiers are accepted
+    private static void checkChannel(String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // closing only to unblock the listener thread
+            }
+        }
+    }
+}
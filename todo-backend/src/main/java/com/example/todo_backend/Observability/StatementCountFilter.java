@@ -0,0 +1,71 @@
+package com.example.todo_backend.Observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Records how many SQL statements each request ran, tagged like http.server.requests, and adds
+// the count to the request's span. Requests above the threshold are logged with the statement
+// they repeated most. Runs outside Spring Security so token and user lookups are included
+@Slf4j
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "http.server.requests.db.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public StatementCountFilter(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.Counts counts = StatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCounter.stop();
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        int total = counts.total();
+
+        DistributionSummary.builder(METRIC)
+                .description("SQL statements run by Hibernate per request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(500.0)
+                .register(meterRegistry)
+                .record(total);
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.addHighCardinalityKeyValue(KeyValue.of("db.statements", Integer.toString(total))));
+
+        if (total > warnThreshold) {
+            Map.Entry<String, Integer> repeated = counts.mostRepeated();
+            if (repeated != null) {
+                log.warn("{} {} ran {} SQL statements, most often ({} times): {}", request.getMethod(), uri, total,
+                        repeated.getValue(), repeated.getKey());
+            } else {
+                log.warn("{} {} ran {} SQL statements", request.getMethod(), uri, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.todo_backend.Observability;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts the SQL statements Hibernate executes on the current thread while a request is being
+// counted, so N+1 selects and repeated lookups show up per endpoint. Executions come from the
+// session events (each JDBC batch counts once, as one round trip); the inspector sees the SQL
+// text when a statement is prepared and keeps which ones repeat. JdbcTemplate and R2DBC
+// statements bypass Hibernate and are not seen
+public class StatementCounter implements StatementInspector, SessionEventListener {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    static Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.prepared.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executed();
+    }
+
+    private static void executed() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.executed++;
+        }
+    }
+
+    static class Counts {
+        private int executed;
+        private final Map<String, Integer> prepared = new HashMap<>();
+
+        int total() {
+            return executed;
+        }
+
+        // The statement prepared most often, which is the one to look at for an N+1
+        Map.Entry<String, Integer> mostRepeated() {
+            return prepared.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.todo_backend.Persistence;
+
+import com.example.todo_backend.Security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Sends the connections of read-only transactions to a replica, round-robin, and everything else
+// to the primary. It sits behind a LazyConnectionDataSourceProxy (Config/ReplicaConfig), so the
+// connection is only fetched at the first statement, once the transaction's read-only flag is set.
+// Reads fall back to the primary when no replica is healthy and within the lag limit, and for a
+// user who committed a write on this node less than read-your-writes-ms ago
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    // Reported by LAG_QUERY for a standby without a running WAL receiver
+    static final long NOT_STREAMING = -1;
+
+    // How far the replica's replay is behind the WAL it has received; 0 when it is caught up
+    // (an idle primary would otherwise look like growing lag) or when it is not in recovery.
+    // "Caught up" only means something while WAL is arriving: a standby that lost its upstream
+    // has replayed all it received and would look current forever, so it reports NOT_STREAMING.
+    // Without pg_read_all_stats the receiver's status is hidden, so then a running receiver counts
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming') " +
+            "THEN " + NOT_STREAMING + " " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000, 0) " +
+            "END::bigint";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final Cache<Object, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMs,
+                                    Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+        this.primaryReads = meterRegistry.counter("db.reads", "target", "primary");
+        this.replicaReads = meterRegistry.counter("db.reads", "target", "replica");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.healthy ? r.lagMs : Double.NaN)
+                    .description("Replay lag of the replica in milliseconds, NaN while it is unreachable")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    // Runs work whose read-only transactions must see the latest commits, e.g. reads triggered by
+    // a commit notification that a lagging replica might not have replayed yet
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    DataSource route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return primary;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return primary;
+        }
+        if (PRIMARY_REQUIRED.get() == null && !isPinned()) {
+            Replica replica = nextUsableReplica();
+            if (replica != null) {
+                replicaReads.increment();
+                return replica.dataSource;
+            }
+        }
+        primaryReads.increment();
+        return primary;
+    }
+
+    private Replica nextUsableReplica() {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.healthy && replica.lagMs <= maxLagMs) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // The user's reads stay on the primary for a while once the write is visible there
+    private void pinAfterCommit() {
+        Object user = currentUser();
+        if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(user, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private boolean isPinned() {
+        Object user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static Object currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getUserId() != null ? user.getUserId() : user.getEmail();
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            long lagMs;
+            try {
+                lagMs = measureLagMs(replica);
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} failed its health check, reads go elsewhere", replica.name, e);
+                }
+                replica.healthy = false;
+                continue;
+            }
+            if (lagMs == NOT_STREAMING) {
+                if (replica.healthy) {
+                    log.warn("Replica {} is not receiving WAL from the primary, reads go elsewhere", replica.name);
+                }
+                replica.healthy = false;
+                continue;
+            }
+            replica.lagMs = lagMs;
+            if (!replica.healthy) {
+                log.info("Replica {} is available, lag {} ms", replica.name, replica.lagMs);
+            }
+            replica.healthy = true;
+        }
+    }
+
+    long measureLagMs(Replica replica) throws SQLException {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Unhealthy until the first check has measured the lag
+        private volatile boolean healthy;
+        private volatile long lagMs;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
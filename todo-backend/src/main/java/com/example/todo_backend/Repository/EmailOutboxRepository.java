@@ -0,0 +1,26 @@
+package com.example.todo_backend.Repository;
+
+import com.example.todo_backend.Entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Rows locked by another node are skipped instead of waited on
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    @Modifying
+    @Query("delete from EmailOutbox e where e.status = :status and e.createdAt < :cutoff")
+    int deleteByStatusAndCreatedAtBefore(@Param("status") EmailOutbox.Status status, @Param("cutoff") LocalDateTime cutoff);
+}
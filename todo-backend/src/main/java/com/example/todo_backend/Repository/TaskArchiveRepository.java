@@ -0,0 +1,73 @@
+package com.example.todo_backend.Repository;
+
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// tasks_archive has no entity: rows only move in and out with set-based statements, and reads
+// project straight into DTOs like the hot read paths do. Every query filters on user_id, so
+// PostgreSQL only visits that user's partition
+@Repository
+public class TaskArchiveRepository {
+
+    private static final RowMapper<TaskResponseDTO> ROW_MAPPER = new DataClassRowMapper<>(TaskResponseDTO.class);
+    private static final String RESPONSE_COLUMNS =
+            "SELECT id, title, description, TRUE AS completed, created_at, updated_at, version FROM tasks_archive ";
+    private static final String COLUMNS = "id, title, description, created_at, updated_at, change_version, version, user_id";
+    private static final String ARCHIVABLE = "completed AND NOT deleted AND COALESCE(updated_at, created_at) < :cutoff";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Moves one chunk of tasks completed before the cutoff; returns how many moved. Every user
+    // who lost tasks from the hot table gets a new collection version, since their default list
+    // and its ETag have changed. The user's task_sync_state row is locked before their tasks, the
+    // order writers take them in, and users with a write in flight are skipped until a later run
+    public int archiveCompletedBefore(LocalDateTime cutoff, int limit, LocalDateTime now) {
+        return jdbcTemplate.queryForObject("WITH owners AS (" +
+                        "SELECT user_id FROM task_sync_state WHERE user_id IN (SELECT user_id FROM tasks " +
+                        "WHERE " + ARCHIVABLE + " LIMIT :limit) FOR UPDATE SKIP LOCKED), " +
+                        "moved AS (DELETE FROM tasks WHERE id IN (SELECT id FROM tasks " +
+                        "WHERE user_id IN (SELECT user_id FROM owners) AND " + ARCHIVABLE + " " +
+                        "LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING " + COLUMNS + "), " +
+                        "archived AS (INSERT INTO tasks_archive (" + COLUMNS + ", archived_at) " +
+                        "SELECT " + COLUMNS + ", :now FROM moved RETURNING user_id), " +
+                        "bumped AS (UPDATE task_sync_state SET version = version + 1 " +
+                        "WHERE user_id IN (SELECT user_id FROM archived) RETURNING user_id) " +
+                        "SELECT COUNT(*) FROM archived",
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", limit).addValue("now", now), Integer.class);
+    }
+
+    // Moves the given archived tasks of the user back to the hot table, e.g. before they are edited
+    public int restore(Long userId, Collection<Long> ids) {
+        return jdbcTemplate.update("WITH restored AS (" +
+                        "DELETE FROM tasks_archive WHERE user_id = :userId AND id IN (:ids) RETURNING " + COLUMNS + ") " +
+                        "INSERT INTO tasks (" + COLUMNS + ", completed, deleted) SELECT " + COLUMNS + ", TRUE, FALSE FROM restored",
+                new MapSqlParameterSource("userId", userId).addValue("ids", ids));
+    }
+
+    public Optional<TaskResponseDTO> findResponseByIdAndUserId(Long id, Long userId) {
+        return jdbcTemplate.query(RESPONSE_COLUMNS + "WHERE user_id = :userId AND id = :id",
+                new MapSqlParameterSource("userId", userId).addValue("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Same order as TaskRepository.findResponsesByUserId
+    public List<TaskResponseDTO> findResponsesByUserId(Long userId) {
+        return jdbcTemplate.query(RESPONSE_COLUMNS + "WHERE user_id = :userId ORDER BY created_at, id",
+                new MapSqlParameterSource("userId", userId), ROW_MAPPER);
+    }
+
+    public int deleteByUserId(Long userId) {
+        return jdbcTemplate.update("DELETE FROM tasks_archive WHERE user_id = :userId",
+                new MapSqlParameterSource("userId", userId));
+    }
+}
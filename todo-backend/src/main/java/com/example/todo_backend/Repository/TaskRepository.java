@@ -1,18 +1,108 @@
 package com.example.todo_backend.Repository;
 
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSummaryDTO;
 import com.example.todo_backend.Entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSearchRepository {
 
-    // Find all tasks for a specific user
-    List<Task> findByUserId(Long userId);
+    // Read paths select straight into DTOs: no managed entity, no dirty-checking snapshot, no User proxy
+    String RESPONSE_PROJECTION = "select new com.example.todo_backend.DTOs.TaskResponseDTO(" +
+            "t.id, t.title, t.description, t.completed, t.createdAt, t.updatedAt, t.version) from Task t ";
+    String SUMMARY_PROJECTION = "select new com.example.todo_backend.DTOs.TaskSummaryDTO(" +
+            "t.id, t.title, t.completed, t.createdAt, t.updatedAt) from Task t ";
+
+    // Find all tasks for a specific user (tombstones of deleted tasks are excluded everywhere but the change feed)
+    List<Task> findByUserIdAndDeletedFalse(Long userId);
 
     // Find a single task by its ID and user ID to ensure a user can only access their own tasks
-    Optional<Task> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+    Optional<Task> findByIdAndUserIdAndDeletedFalse(Long id, Long userId);
+
+    // Batch operations: resolve which of the requested ids belong to the user, then apply set-based statements
+    List<Task> findByUserIdAndIdInAndDeletedFalse(Long userId, Collection<Long> ids);
+
+    @Query("select t.id from Task t where t.user.id = :userId and t.id in :ids and t.deleted = false")
+    List<Long> findOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Set-based writes number the touched rows firstVersion, firstVersion + 1, ... in id order
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tasks t SET completed = true, updated_at = :now, change_version = :firstVersion + r.rn - 1, " +
+            "version = t.version + 1 " +
+            "FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM tasks " +
+            "WHERE user_id = :userId AND id IN (:ids) AND NOT deleted) r " +
+            "WHERE t.id = r.id", nativeQuery = true)
+    int markCompleted(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                      @Param("now") LocalDateTime now, @Param("firstVersion") long firstVersion);
+
+    // Turns the tasks into tombstones; their content is dropped, only id and version are kept for sync
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tasks t SET deleted = true, deleted_at = :now, updated_at = :now, description = NULL, " +
+            "change_version = :firstVersion + r.rn - 1, version = t.version + 1 " +
+            "FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM tasks " +
+            "WHERE user_id = :userId AND id IN (:ids) AND NOT deleted) r " +
+            "WHERE t.id = r.id", nativeQuery = true)
+    int tombstoneOwned(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                       @Param("now") LocalDateTime now, @Param("firstVersion") long firstVersion);
+
+    // Account deletion: counts and removes the user's rows, tombstones included, without loading them.
+    // A chunk is a short transaction of its own so huge accounts never hold long locks
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from Task t where t.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    // Delta sync: every live task and tombstone changed after a version, in version order
+    @Query("select t from Task t where t.user.id = :userId and t.changeVersion > :since order by t.changeVersion asc")
+    List<Task> findChangedSince(@Param("userId") Long userId, @Param("since") long since, Pageable pageable);
+
+    // Fixed order, so an unchanged list serialises to the same bytes under the same ETag
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId and t.deleted = false order by t.createdAt asc, t.id asc")
+    List<TaskResponseDTO> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(RESPONSE_PROJECTION + "where t.id = :id and t.user.id = :userId and t.deleted = false")
+    Optional<TaskResponseDTO> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(SUMMARY_PROJECTION + "where t.user.id = :userId and t.deleted = false order by t.createdAt asc, t.id asc")
+    List<TaskSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    // Keyset pagination on (createdAt, id): first page, then every page after a cursor
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId and t.deleted = false order by t.createdAt asc, t.id asc")
+    List<TaskResponseDTO> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId and t.deleted = false " +
+            "and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)) " +
+            "order by t.createdAt asc, t.id asc")
+    List<TaskResponseDTO> findPageByUserIdAfter(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // Cursor-backed stream for exports; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId and t.deleted = false order by t.createdAt asc, t.id asc")
+    Stream<TaskResponseDTO> streamByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,14 @@
+package com.example.todo_backend.Repository;
+
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSearchCriteria;
+
+import java.util.List;
+
+// Custom fragment of TaskRepository: the search SQL depends on which filters are present
+public interface TaskSearchRepository {
+
+    // Expects validated criteria (see TaskServiceImpl.searchTasks); must run inside a transaction
+    // so the statement timeout only applies to this query
+    List<TaskResponseDTO> search(Long userId, TaskSearchCriteria criteria, int limit, long offset, long timeoutMs);
+}
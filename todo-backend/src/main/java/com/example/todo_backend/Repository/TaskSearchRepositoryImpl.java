@@ -0,0 +1,72 @@
+package com.example.todo_backend.Repository;
+
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSearchCriteria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    private static final RowMapper<TaskResponseDTO> ROW_MAPPER = new DataClassRowMapper<>(TaskResponseDTO.class);
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<TaskResponseDTO> search(Long userId, TaskSearchCriteria criteria, int limit, long offset, long timeoutMs) {
+        boolean hasQuery = criteria.getQ() != null;
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        StringBuilder sql = new StringBuilder(
+                "SELECT t.id, t.title, t.description, t.completed, t.created_at, t.updated_at, t.version FROM tasks t");
+        if (hasQuery) {
+            // websearch_to_tsquery never fails on user input, unlike to_tsquery
+            sql.append(", websearch_to_tsquery('english', :q) query");
+            params.addValue("q", criteria.getQ());
+        }
+        sql.append(" WHERE t.user_id = :userId AND NOT t.deleted");
+        if (hasQuery) {
+            sql.append(" AND t.search_vector @@ query");
+        }
+        if (criteria.getCompleted() != null) {
+            sql.append(" AND t.completed = :completed");
+            params.addValue("completed", criteria.getCompleted());
+        }
+        range(sql, params, "t.created_at", "createdFrom", criteria.getCreatedFrom(), "createdTo", criteria.getCreatedTo());
+        range(sql, params, "t.updated_at", "updatedFrom", criteria.getUpdatedFrom(), "updatedTo", criteria.getUpdatedTo());
+
+        // Sort keys come from a fixed set, never from the request text itself
+        String direction = "asc".equals(criteria.getDirection()) ? " ASC" : " DESC";
+        String orderBy = switch (criteria.getSort()) {
+            case TaskSearchCriteria.SORT_RELEVANCE -> "ts_rank_cd(t.search_vector, query)";
+            // Tasks that were never updated sort by their creation time
+            case "updatedAt" -> "COALESCE(t.updated_at, t.created_at)";
+            case "title" -> "t.title";
+            default -> "t.created_at";
+        };
+        sql.append(" ORDER BY ").append(orderBy).append(direction).append(", t.id").append(direction)
+                .append(" LIMIT :limit OFFSET :offset");
+        params.addValue("limit", limit).addValue("offset", offset);
+
+        // Latency budget: PostgreSQL cancels the query past the timeout; SET LOCAL ends with the transaction
+        jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT set_config('statement_timeout', ?, true)", String.class, timeoutMs + "ms");
+        return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    private static void range(StringBuilder sql, MapSqlParameterSource params, String column,
+                              String fromName, Object from, String toName, Object to) {
+        if (from != null) {
+            sql.append(" AND ").append(column).append(" >= :").append(fromName);
+            params.addValue(fromName, from);
+        }
+        if (to != null) {
+            sql.append(" AND ").append(column).append(" < :").append(toName);
+            params.addValue(toName, to);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todo_backend.Repository;
+
+import com.example.todo_backend.Entity.TaskSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TaskSyncStateRepository extends JpaRepository<TaskSyncState, Long> {
+
+    // Version of the user's whole task list, changed by every write: a primary key lookup
+    @Query("select s.version from TaskSyncState s where s.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from TaskSyncState s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Reserves `count` consecutive versions and returns the highest one. The upsert locks the
+    // user's row until commit, so a later writer always gets higher versions and commits after
+    @Query(value = "INSERT INTO task_sync_state (user_id, version, purged_version) VALUES (:userId, :count, 0) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = task_sync_state.version + :count " +
+            "RETURNING version", nativeQuery = true)
+    long reserveVersions(@Param("userId") Long userId, @Param("count") int count);
+
+    // Hard-deletes one chunk of old tombstones and raises purged_version to the highest version
+    // removed per user, so clients that are further behind know they missed a deletion. Tombstones
+    // locked by a purge on another node are skipped. Returns the number of tombstones removed
+    @Query(value = "WITH purged AS (" +
+            "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE deleted AND deleted_at < :cutoff LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "RETURNING user_id, change_version), " +
+            "latest AS (SELECT user_id, MAX(change_version) AS max_version FROM purged GROUP BY user_id), " +
+            "raised AS (UPDATE task_sync_state s SET purged_version = GREATEST(s.purged_version, latest.max_version) " +
+            "FROM latest WHERE s.user_id = latest.user_id RETURNING s.user_id) " +
+            "SELECT COUNT(*) FROM purged", nativeQuery = true)
+    long purgeTombstones(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
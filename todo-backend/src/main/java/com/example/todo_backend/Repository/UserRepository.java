@@ -1,15 +1,54 @@
 package com.example.todo_backend.Repository;
 
 import com.example.todo_backend.Entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByNumber(String number);
-    boolean existsByEmail(String email);
-    boolean existsByNumber(String number);
+
+    // Login accepts either identifier; one query over both unique indexes (BitmapOr), email match first
+    @Query("select u from User u where u.email = :login or u.number = :login " +
+            "order by case when u.email = :login then 0 else 1 end")
+    List<User> findByEmailOrNumber(@Param("login") String login, Limit limit);
+
+    default Optional<User> findByLogin(String login) {
+        return findByEmailOrNumber(login, Limit.of(1)).stream().findFirst();
+    }
+
+    // Bulk delete of the row alone: unlike delete(user) it does not load and cascade over User.tasks
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    // Revokes every token issued to the user so far (see JwtAuthenticationFilter)
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    // Registration pre-check: one query over both unique indexes, returning the email of the user
+    // holding either identifier (an email match first)
+    @Query("select u.email from User u where u.email = :email or u.number = :number " +
+            "order by case when u.email = :email then 0 else 1 end")
+    List<String> findEmailsHolding(@Param("email") String email, @Param("number") String number, Limit limit);
+
+    // Every identifier in use, for RegisteredUserFilter; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "5000")
+    })
+    @Query("select u.email, u.number from User u")
+    Stream<Object[]> streamEmailsAndNumbers();
 }
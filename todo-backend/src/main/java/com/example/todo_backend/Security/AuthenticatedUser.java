@@ -0,0 +1,21 @@
+package com.example.todo_backend.Security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Principal built from a verified JWT; getName() keeps returning the email for existing callers
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    // Null for tokens issued before the user id claim was added
+    private final Long userId;
+    private final String email;
+    private final int tokenVersion;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
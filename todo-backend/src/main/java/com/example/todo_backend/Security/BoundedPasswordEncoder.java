@@ -0,0 +1,100 @@
+package com.example.todo_backend.Security;
+
+import com.example.todo_backend.Exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Runs every hash on a small dedicated pool so a burst of logins can use at most that many cores.
+// A full queue, or a hash that has not started within the queue timeout, fails fast with 429
+// instead of piling up request threads behind bcrypt/argon2
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long queueTimeoutMs;
+    private final Timer encodeLatency;
+    private final Timer matchLatency;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor,
+                                  long queueTimeoutMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.encodeLatency = Timer.builder("password.hash.latency").tag("operation", "encode").register(meterRegistry);
+        this.matchLatency = Timer.builder("password.hash.latency").tag("operation", "matches").register(meterRegistry);
+        this.queueWait = Timer.builder("password.hash.queue.wait")
+                .description("Time a hash waited for a free hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeLatency, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchLatency, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only parses the stored hash, so it stays on the caller's thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer latency, Supplier<T> hash) {
+        long queuedAt = System.nanoTime();
+        // Whoever flips this first owns the slot: the worker to start hashing, or the caller to give up
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return latency.record(hash);
+            });
+        } catch (TaskRejectedException e) {
+            throw overloaded();
+        }
+
+        try {
+            try {
+                return result.get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    throw overloaded();
+                }
+                // Already hashing; the result is at most one hash away
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    private TooManyRequestsException overloaded() {
+        rejected.increment();
+        return new TooManyRequestsException("Too many sign-in attempts right now. Please try again shortly.",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMs)));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.todo_backend.Security;
 
+import com.example.todo_backend.DTOs.UserSnapshot;
+import com.example.todo_backend.Service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,25 +14,38 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    // Resolved lazily: UserServiceImpl needs the PasswordEncoder from SecurityConfig, which needs this filter
+    @Autowired
+    private ObjectProvider<UserService> userService;
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader=request.getHeader("Authorization");
         String jwt =null;
-        String email=null;
         if(authHeader!=null && authHeader.startsWith("Bearer ")){
             jwt=authHeader.substring(7);
-            if (jwtUtil.validateJwtToken(jwt)) {
-                 email = jwtUtil.getEmailFromToken(jwt);
+            VerifiedToken verified = tokenCache.getOrVerify(jwt);
+            if (verified != null && isCurrent(verified.getUser())) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(email, null, null);
+                        new UsernamePasswordAuthenticationToken(verified.getUser(), null, null);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // The signature only proves the token was issued; it still has to belong to an existing user
+    // whose token version has not moved on since (account deletion bumps it). The snapshot comes
+    // from the user cache, which every node evicts when the user changes
+    private boolean isCurrent(AuthenticatedUser user) {
+        Optional<UserSnapshot> snapshot = user.getUserId() != null
+                ? userService.getObject().findSnapshotById(user.getUserId())
+                : userService.getObject().findSnapshotByEmail(user.getEmail());
+        return snapshot.map(s -> s.getTokenVersion() == user.getTokenVersion()).orElse(false);
+    }
 }
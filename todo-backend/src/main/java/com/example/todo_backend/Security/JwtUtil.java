@@ -1,6 +1,8 @@
 package com.example.todo_backend.Security;
 
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -13,6 +15,11 @@ import java.util.Date;
 
 @Component
 public class JwtUtil {
+    // Tokens issued before the claim existed count as version 1, the initial users.token_version
+    private static final int LEGACY_TOKEN_VERSION = 1;
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -20,34 +27,51 @@ public class JwtUtil {
     private Long jwtExpirationInMs;
 
     private SecretKey key;
+    // Immutable and thread-safe, so one instance serves every request
+    private JwtParser parser;
     @PostConstruct
     public void init(){
         key= Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
-    public String generateToken(String email){
+    // tokenVersion is the user's current users.token_version; the filter rejects the token once it moves on
+    public String generateToken(Long userId, String email, int tokenVersion){
         return Jwts.builder()
                 .setSubject(email)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    // Verifies the signature and expiry once and extracts everything the filter needs;
+    // returns null when the token is invalid
+    public VerifiedToken verifyToken(String token){
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        AuthenticatedUser user = new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                tokenVersion != null ? tokenVersion.intValue() : LEGACY_TOKEN_VERSION);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        return new VerifiedToken(user, expiresAt);
+    }
+
     public String getEmailFromToken(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean validateJwtToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token) != null;
     }
 }
\ No newline at end of file
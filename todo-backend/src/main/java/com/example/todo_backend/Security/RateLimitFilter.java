@@ -0,0 +1,142 @@
+package com.example.todo_backend.Security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Throttles the unauthenticated user endpoints per client IP and per account (email or phone
+// number taken from the JSON body) before any password hashing, SMTP or database work happens
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // The public endpoints take a few small fields; anything bigger is refused rather than buffered
+    private static final int MAX_INSPECTED_BODY = 8 * 1024;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, RouteLimiters> limitersByPath = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        properties.getRoutes().forEach((name, route) -> limitersByPath.put(route.getPath(), new RouteLimiters(
+                route.getAccountField(),
+                limiter(route.getIp()),
+                route.getAccountField() == null ? null : limiter(route.getAccount()))));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || !limitersByPath.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteLimiters limiters = limitersByPath.get(request.getServletPath());
+        long now = System.nanoTime();
+
+        if (limiters.ip != null) {
+            long wait = limiters.ip.tryAcquire(clientIp(request), now);
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+
+        HttpServletRequest forwarded = request;
+        // The body is read up to the cap whatever Content-Length says, so chunked requests or ones
+        // without the header cannot get around the per-account limit; longer bodies are refused
+        if (limiters.account != null) {
+            if (request.getContentLengthLong() > MAX_INSPECTED_BODY) {
+                rejectTooLarge(response);
+                return;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY + 1);
+            if (body.length > MAX_INSPECTED_BODY) {
+                rejectTooLarge(response);
+                return;
+            }
+            CachedBodyRequest cached = new CachedBodyRequest(request, body);
+            forwarded = cached;
+            String account = accountOf(cached.getBody(), limiters.accountField);
+            if (account != null) {
+                long wait = limiters.account.tryAcquire(account, now);
+                if (wait > 0) {
+                    reject(response, wait);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private TokenBucketLimiter limiter(RateLimitProperties.Rate rate) {
+        if (rate == null) {
+            return null;
+        }
+        return new TokenBucketLimiter(rate.getCapacity(), rate.getPermitsPerMinute(),
+                properties.getMaxKeys(), properties.getStripes());
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String accountOf(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() ? value.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", "Too many requests. Please try again in " + retryAfter + " seconds."));
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Request body is too large."));
+    }
+
+    private record RouteLimiters(String accountField, TokenBucketLimiter ip, TokenBucketLimiter account) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todo_backend.Security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// app.rate-limit.* — one entry under routes per throttled POST endpoint
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked keys per limiter (one limiter per route and dimension)
+    private int maxKeys = 100_000;
+
+    private int stripes = 64;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients pick their own key
+    private boolean trustForwardedFor = false;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String path;
+        // JSON body field identifying the account, e.g. "email"; leave unset to limit by IP only
+        private String accountField;
+        private Rate ip;
+        private Rate account;
+    }
+
+    @Getter
+    @Setter
+    public static class Rate {
+        // Burst size
+        private int capacity;
+        private int permitsPerMinute;
+    }
+}
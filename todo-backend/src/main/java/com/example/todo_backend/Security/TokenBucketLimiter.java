@@ -0,0 +1,93 @@
+package com.example.todo_backend.Security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in its GCRA form: each key's whole state is one AtomicLong holding the
+// "theoretical arrival time" of the next request, updated with a CAS loop, so there is no lock
+// on the hot path. Keys live in a fixed number of stripes with a per-stripe size cap; a full
+// stripe first drops idle buckets (a bucket whose arrival time has passed is simply full again)
+// and, if that is not enough, puts new keys on a shared overflow bucket so memory stays bounded
+public class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes;
+
+    public TokenBucketLimiter(int capacity, int permitsPerMinute, int maxKeys, int stripeCount) {
+        if (capacity < 1 || permitsPerMinute < 1) {
+            throw new IllegalArgumentException("capacity and permitsPerMinute must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Returns 0 when a permit was taken, otherwise how many nanoseconds until one is available
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = bucketFor(key, nowNanos);
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucketFor(String key, long nowNanos) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= maxKeysPerStripe && !stripe.sweep(nowNanos, maxKeysPerStripe)) {
+            return stripe.overflow;
+        }
+        // A fresh bucket starts full: any arrival time in the past will do
+        return stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos - burstNanos));
+    }
+
+    private static final class Stripe {
+        private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE / 2);
+        final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE / 2);
+
+        // Drops buckets that have refilled completely; returns whether there is room afterwards.
+        // At most one sweep per second per stripe, so a flood of new keys cannot turn into O(n) scans
+        boolean sweep(long nowNanos, int maxKeys) {
+            long last = lastSweep.get();
+            if (nowNanos - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, nowNanos)) {
+                Iterator<AtomicLong> iterator = buckets.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().get() <= nowNanos) {
+                        iterator.remove();
+                    }
+                }
+            }
+            return buckets.size() < maxKeys;
+        }
+    }
+}
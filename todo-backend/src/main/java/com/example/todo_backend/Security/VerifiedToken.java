@@ -0,0 +1,15 @@
+package com.example.todo_backend.Security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final AuthenticatedUser user;
+    private final long expiresAtMillis;
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.todo_backend.Security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded cache of already verified tokens keyed by their SHA-256 digest, so repeat requests
+// with the same bearer token skip the HS512 check and claim parsing until the token expires
+@Component
+public class VerifiedTokenCache {
+
+    // Minimum gap between full sweeps for expired entries when the cache is full
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    // jwt.verify by cache=hit|miss and result=valid|invalid; a miss is a full HS512 verification
+    private Timer hitValid;
+    private Timer hitInvalid;
+    private Timer missValid;
+    private Timer missInvalid;
+
+    @PostConstruct
+    public void init() {
+        hitValid = verifyTimer("hit", "valid");
+        hitInvalid = verifyTimer("hit", "invalid");
+        missValid = verifyTimer("miss", "valid");
+        missInvalid = verifyTimer("miss", "invalid");
+    }
+
+    // Returns the verified token, or null when the token is invalid or expired
+    public VerifiedToken getOrVerify(String token) {
+        long start = System.nanoTime();
+        if (!enabled) {
+            return verify(token, start);
+        }
+
+        long now = System.currentTimeMillis();
+        String key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                hitValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            entries.remove(key, cached);
+            hitInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+
+        VerifiedToken verified = verify(token, start);
+        if (verified != null && hasRoom(now)) {
+            entries.put(key, verified);
+        }
+        return verified;
+    }
+
+    private VerifiedToken verify(String token, long start) {
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        (verified != null ? missValid : missInvalid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
+    }
+
+    private Timer verifyTimer(String cache, String result) {
+        return Timer.builder("jwt.verify")
+                .description("Bearer token verification, including the verified-token cache lookup")
+                .tags("cache", cache, "result", result)
+                .register(meterRegistry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() < maxSize) {
+            return true;
+        }
+        long previous = lastSweep.get();
+        if (now - previous >= SWEEP_INTERVAL_MS && lastSweep.compareAndSet(previous, now)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+        // Still full means every entry is live; skip caching rather than evict a hot token
+        return entries.size() < maxSize;
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
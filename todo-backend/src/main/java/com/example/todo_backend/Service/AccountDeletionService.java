@@ -0,0 +1,159 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.DTOs.AccountDeletionDTO;
+import com.example.todo_backend.Repository.TaskArchiveRepository;
+import com.example.todo_backend.Repository.TaskRepository;
+import com.example.todo_backend.Repository.TaskSyncStateRepository;
+import com.example.todo_backend.Repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deletes an account with set-based statements instead of cascading over User.tasks, which
+// loads every task and deletes them one by one. Tasks go in chunks of their own transactions,
+// then the last transaction removes whatever is left (tasks created meanwhile included), the
+// sync state and the user row. Accounts above the async threshold are deleted in the background;
+// their progress is kept on the node running the job. The user's tokens are revoked before
+// anything is deleted, so no request can write tasks for an account that is going away
+@Slf4j
+@Component
+public class AccountDeletionService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Autowired
+    private TaskSyncStateRepository taskSyncStateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    @Qualifier("accountDeletionExecutor")
+    private Executor accountDeletionExecutor;
+
+    @Value("${app.users.deletion.chunk-size:5000}")
+    private int chunkSize;
+
+    // Accounts with more tasks than this are deleted in the background
+    @Value("${app.users.deletion.async-threshold:50000}")
+    private long asyncThreshold;
+
+    // How long finished jobs stay visible at /api/users/deletions/{id}
+    @Value("${app.users.deletion.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public AccountDeletionDTO delete(Long userId, String email) {
+        forgetFinishedJobs();
+        transactionOperations.executeWithoutResult(status -> userRepository.incrementTokenVersion(userId));
+        userCacheInvalidator.invalidate(userId, email);
+        Job job = new Job(userId, email, taskRepository.countByUserId(userId));
+        if (job.tasksTotal <= asyncThreshold) {
+            run(job);
+            return job.toDTO();
+        }
+        jobs.put(job.id, job);
+        accountDeletionExecutor.execute(() -> {
+            try {
+                run(job);
+            } catch (RuntimeException e) {
+                log.error("Deletion of account {} failed after {} tasks", email, job.tasksDeleted.get(), e);
+            }
+        });
+        log.info("Deleting account {} with {} tasks in the background (job {})", email, job.tasksTotal, job.id);
+        return job.toDTO();
+    }
+
+    public Optional<AccountDeletionDTO> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDTO);
+    }
+
+    private void run(Job job) {
+        try {
+            if (job.tasksTotal > chunkSize) {
+                int deleted;
+                do {
+                    deleted = transactionOperations.execute(status -> taskRepository.deleteChunkByUserId(job.userId, chunkSize));
+                    job.tasksDeleted.addAndGet(deleted);
+                } while (deleted == chunkSize);
+            }
+            transactionOperations.executeWithoutResult(status -> {
+                job.tasksDeleted.addAndGet(taskRepository.deleteAllByUserId(job.userId));
+                // Archived tasks are not counted in the job's progress; this is one statement on one partition
+                taskArchiveRepository.deleteByUserId(job.userId);
+                taskSyncStateRepository.deleteByUserId(job.userId);
+                userRepository.deleteUserById(job.userId);
+                userCacheInvalidator.invalidate(job.userId, job.email);
+            });
+            job.finish(AccountDeletionDTO.State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            job.finish(AccountDeletionDTO.State.FAILED, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long userId;
+        private final String email;
+        private final long tasksTotal;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong tasksDeleted = new AtomicLong();
+        private volatile AccountDeletionDTO.State state = AccountDeletionDTO.State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(Long userId, String email, long tasksTotal) {
+            this.userId = userId;
+            this.email = email;
+            this.tasksTotal = tasksTotal;
+        }
+
+        private void finish(AccountDeletionDTO.State state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        private AccountDeletionDTO toDTO() {
+            return AccountDeletionDTO.builder()
+                    .id(id)
+                    .email(email)
+                    .state(state)
+                    .tasksTotal(tasksTotal)
+                    .tasksDeleted(tasksDeleted.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Entity.EmailOutbox;
+import com.example.todo_backend.Repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the email outbox: claims due rows in batches and hands each batch to a bounded
+// worker pool that sends it over a single SMTP connection, retrying failures with backoff
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier("emailOutboxExecutor")
+    private Executor emailOutboxExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Each SMTP batch is an observation: the email.send.latency timer plus a span when tracing is on
+    @Autowired
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    @Value("${app.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${app.mail.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    // How long a claimed row stays invisible to other workers before it is retried
+    @Value("${app.mail.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    // FAILED rows are kept this long for investigation; their code is already cleared
+    @Value("${app.mail.outbox.failed-retention-days:7}")
+    private int failedRetentionDays;
+
+    private Semaphore workerPermits;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        workerPermits = new Semaphore(workers);
+        Gauge.builder("email.outbox.depth", queueDepth, AtomicLong::get)
+                .description("Pending OTP emails waiting for delivery")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("email.sent").register(meterRegistry);
+        failedCounter = Counter.builder("email.send.failures").register(meterRegistry);
+    }
+
+    // Wake the drainer as soon as the enqueuing transaction commits instead of waiting for the next poll
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailOutbox queued) {
+        if (enabled) {
+            taskScheduler.schedule(this::drain, Instant.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    // One delete per run; on several nodes the runs just find less to remove
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval-ms:3600000}")
+    public void purgeFailed() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(failedRetentionDays);
+        Integer purged = transactionOperations.execute(status ->
+                emailOutboxRepository.deleteByStatusAndCreatedAtBefore(EmailOutbox.Status.FAILED, cutoff));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} failed OTP emails created before {}", purged, cutoff);
+        }
+    }
+
+    // Called by the poll and after each enqueuing commit, possibly at the same time (and on virtual
+    // threads in the java21 profile). The permits cap the batches in flight, and SKIP LOCKED in
+    // lockDueBatch keeps concurrent claims on this or any other node from picking the same rows
+    void drain() {
+        try {
+            while (workerPermits.tryAcquire()) {
+                try {
+                    List<EmailOutbox> batch = claimBatch();
+                    if (batch.isEmpty()) {
+                        workerPermits.release();
+                        break;
+                    }
+                    emailOutboxExecutor.execute(() -> {
+                        try {
+                            sendBatch(batch);
+                        } finally {
+                            workerPermits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Nothing was handed to a worker, so nothing else will give the permit back. Rows
+                    // claimed before a rejected submit reappear once their lease runs out
+                    workerPermits.release();
+                    throw e;
+                }
+            }
+            queueDepth.set(emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        } catch (RuntimeException e) {
+            log.error("Failed to drain email outbox", e);
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionOperations.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+            // Push the rows out of reach while they are in flight; a crashed worker's rows reappear after the lease
+            batch.forEach(email -> email.setNextAttemptAt(now.plus(leaseMs, ChronoUnit.MILLIS)));
+            return emailOutboxRepository.saveAll(batch);
+        });
+    }
+
+    void sendBatch(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(emailService.buildOtpMessage(email), email);
+            } catch (RuntimeException e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            Observation observation = Observation.createNotStarted("email.send.latency", observationRegistry)
+                    .contextualName("smtp send")
+                    .highCardinalityKeyValue("email.batch.size", Integer.toString(messages.size()))
+                    .start();
+            try {
+                // JavaMailSender sends an array over one transport connection
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    EmailOutbox email = messages.get(message);
+                    if (email != null) {
+                        failures.put(email, cause);
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e));
+                }
+                observation.error(e);
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+                observation.error(e);
+            } finally {
+                observation.stop();
+            }
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                sent.add(email.getId());
+            } else {
+                scheduleRetry(email, failure);
+            }
+        }
+        sentCounter.increment(sent.size());
+        failedCounter.increment(failures.size());
+
+        transactionOperations.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                emailOutboxRepository.deleteAllByIdInBatch(sent);
+            }
+            if (!failures.isEmpty()) {
+                emailOutboxRepository.saveAll(failures.keySet());
+            }
+        });
+    }
+
+    private void scheduleRetry(EmailOutbox email, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(abbreviate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            email.setOtpCiphertext(null);
+            log.error("Giving up on OTP email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts, failure);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        email.setNextAttemptAt(LocalDateTime.now().plus(backoff, ChronoUnit.MILLIS));
+        log.warn("OTP email {} failed (attempt {}), retrying in {} ms: {}", email.getId(), attempts, backoff, failure.getMessage());
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.todo_backend.Service;
 
+import com.example.todo_backend.Entity.EmailOutbox;
+import com.example.todo_backend.Repository.EmailOutboxRepository;
+import com.example.todo_backend.Util.PayloadCipher;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
@@ -18,27 +25,65 @@ public class EmailService {
     @Autowired
     private TemplateEngine templateEngine;
 
+    @Autowired
+    private OtpEmailRenderer otpEmailRenderer;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Queued codes are only stored encrypted; defaults to the JWT secret so every node can send any row
+    @Value("${app.mail.outbox.encryption-secret:${jwt.secret}}")
+    private String encryptionSecret;
+
+    private PayloadCipher payloadCipher;
+
+    @PostConstruct
+    public void init() {
+        payloadCipher = new PayloadCipher(encryptionSecret);
+    }
+
+    // Queues the OTP email in the caller's transaction; EmailOutboxDispatcher sends it after commit
+    @Transactional
     public void sendOtpEmail(String to, String name, String otp) {
-        // Create the Thymeleaf context
-        Context context = new Context();
-        context.setVariable("name", name);
-        context.setVariable("otp", otp);
+        EmailOutbox queued = emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .recipientName(name)
+                .otpCiphertext(payloadCipher.encrypt(otp))
+                .build());
+        eventPublisher.publishEvent(queued);
+    }
 
-        // Process the HTML template with the context variables
-        String htmlContent = templateEngine.process("otp-email-template", context);
+    public MimeMessage buildOtpMessage(EmailOutbox email) {
+        String htmlContent = renderOtpEmail(email.getRecipientName(), payloadCipher.decrypt(email.getOtpCiphertext()));
 
         // Create a MimeMessage for sending HTML email
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
 
         try {
-            helper.setTo(to);
+            helper.setTo(email.getRecipient());
             helper.setSubject("Your OTP Code for ToDo App");
             helper.setText(htmlContent, true); // true indicates the content is HTML
-            mailSender.send(mimeMessage);
+            return mimeMessage;
         } catch (MessagingException e) {
-            // Consider a more robust error handling
-            throw new RuntimeException("Failed to send email", e);
+            throw new RuntimeException("Failed to build email", e);
         }
     }
-}
\ No newline at end of file
+
+    public String renderOtpEmail(String name, String otp) {
+        if (otpEmailRenderer.isPrecompiled()) {
+            return otpEmailRenderer.render(name, otp);
+        }
+
+        // Create the Thymeleaf context
+        Context context = new Context();
+        context.setVariable("name", name);
+        context.setVariable("otp", otp);
+
+        // Process the HTML template with the context variables
+        return templateEngine.process("otp-email-template", context);
+    }
+}
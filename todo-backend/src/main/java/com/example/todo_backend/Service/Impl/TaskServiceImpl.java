@@ -1,40 +1,103 @@
 package com.example.todo_backend.Service.Impl;
 
+import com.example.todo_backend.DTOs.TaskBatchOperationDTO;
+import com.example.todo_backend.DTOs.TaskBatchResultDTO;
+import com.example.todo_backend.DTOs.TaskChangeEventDTO;
+import com.example.todo_backend.DTOs.TaskChangesResponseDTO;
+import com.example.todo_backend.DTOs.TaskPageResponseDTO;
 import com.example.todo_backend.DTOs.TaskRequestDTO;
 import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSearchCriteria;
+import com.example.todo_backend.DTOs.TaskSearchResponseDTO;
+import com.example.todo_backend.DTOs.TaskSummaryDTO;
 import com.example.todo_backend.Entity.Task;
+import com.example.todo_backend.Entity.TaskSyncState;
 import com.example.todo_backend.Entity.User;
+import com.example.todo_backend.Exception.PreconditionFailedException;
 import com.example.todo_backend.Exception.UserException;
+import com.example.todo_backend.Repository.TaskArchiveRepository;
 import com.example.todo_backend.Repository.TaskRepository;
+import com.example.todo_backend.Repository.TaskSyncStateRepository;
 import com.example.todo_backend.Repository.UserRepository;
+import com.example.todo_backend.Service.TaskChangedEvent;
 import com.example.todo_backend.Service.TaskService;
+import com.example.todo_backend.Util.TaskCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    // Rows written between explicit flushes of the export stream
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    // SQLSTATE of a statement cancelled by statement_timeout
+    private static final String QUERY_CANCELED = "57014";
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskSyncStateRepository taskSyncStateRepository;
+
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.tasks.batch.max-operations:500}")
+    private int maxBatchOperations;
+
+    @Value("${app.tasks.search.timeout-ms:500}")
+    private long searchTimeoutMs;
+
+    // Offset paging reads and discards every skipped row, so deep pages are refused
+    @Value("${app.tasks.search.max-offset:5000}")
+    private int maxSearchOffset;
+
+    @Value("${app.tasks.search.max-query-length:200}")
+    private int maxSearchQueryLength;
+
     @Override
     @Transactional
-    public TaskResponseDTO createTask(TaskRequestDTO taskRequestDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found."));
+    public TaskResponseDTO createTask(TaskRequestDTO taskRequestDTO, Long userId) {
+        // The id comes from the verified token, so a reference is enough to set the foreign key
+        User user = userRepository.getReferenceById(userId);
 
         Task task = Task.builder()
                 .title(taskRequestDTO.getTitle())
                 .description(taskRequestDTO.getDescription())
                 .completed(false) // New tasks are not completed by default
                 .user(user)
+                .changeVersion(reserveVersions(userId, 1))
                 .build();
 
         Task savedTask = taskRepository.save(task);
@@ -42,51 +105,447 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public List<TaskResponseDTO> getAllTasksByUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found."));
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getAllTasksByUser(Long userId) {
+        return taskRepository.findResponsesByUserId(userId);
+    }
+
+    // Archiving and restoring both bump the collection version, so one ETag still stands for
+    // one body whether or not the archive is included
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getAllTasksByUser(Long userId, boolean includeArchived) {
+        List<TaskResponseDTO> tasks = taskRepository.findResponsesByUserId(userId);
+        if (!includeArchived) {
+            return tasks;
+        }
+        List<TaskResponseDTO> archived = taskArchiveRepository.findResponsesByUserId(userId);
+        if (archived.isEmpty()) {
+            return tasks;
+        }
+        List<TaskResponseDTO> all = new ArrayList<>(tasks.size() + archived.size());
+        all.addAll(tasks);
+        all.addAll(archived);
+        all.sort(Comparator.comparing(TaskResponseDTO::getCreatedAt).thenComparing(TaskResponseDTO::getId));
+        return all;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDTO> getTaskSummaries(Long userId) {
+        return taskRepository.findSummariesByUserId(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageResponseDTO getTaskPage(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        // Fetch one extra row to find out whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<TaskResponseDTO> tasks;
+        if (cursor == null || cursor.isBlank()) {
+            tasks = taskRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            TaskCursor position = TaskCursor.decode(cursor);
+            tasks = taskRepository.findPageByUserIdAfter(userId, position.getCreatedAt(), position.getId(), limit);
+        }
+
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskResponseDTO> page = hasMore ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = null;
+        if (hasMore) {
+            TaskResponseDTO last = page.get(page.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return TaskPageResponseDTO.builder()
+                .tasks(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSearchResponseDTO searchTasks(Long userId, TaskSearchCriteria criteria) {
+        String query = criteria.getQ() == null || criteria.getQ().isBlank() ? null : criteria.getQ().trim();
+        if (query != null && query.length() > maxSearchQueryLength) {
+            throw new UserException("Search text can be at most " + maxSearchQueryLength + " characters.");
+        }
+        criteria.setQ(query);
+        if (criteria.getSort() == null) {
+            criteria.setSort(query != null ? TaskSearchCriteria.SORT_RELEVANCE : "createdAt");
+        } else if (!TaskSearchCriteria.SORT_FIELDS.contains(criteria.getSort())) {
+            throw new UserException("Unsupported sort: " + criteria.getSort());
+        } else if (query == null && TaskSearchCriteria.SORT_RELEVANCE.equals(criteria.getSort())) {
+            throw new UserException("Sorting by relevance needs search text.");
+        }
+        if (criteria.getDirection() == null) {
+            criteria.setDirection("title".equals(criteria.getSort()) ? "asc" : "desc");
+        } else if (!criteria.getDirection().equals("asc") && !criteria.getDirection().equals("desc")) {
+            throw new UserException("Direction must be asc or desc.");
+        }
+
+        int page = criteria.getPage() == null ? 0 : Math.max(criteria.getPage(), 0);
+        int pageSize = criteria.getSize() == null ? defaultPageSize : Math.min(Math.max(criteria.getSize(), 1), maxPageSize);
+        long offset = (long) page * pageSize;
+        if (offset > maxSearchOffset) {
+            throw new UserException("Page is too deep, narrow the search instead.");
+        }
+
+        List<TaskResponseDTO> tasks;
+        try {
+            // Fetch one extra row to find out whether another page exists
+            tasks = taskRepository.search(userId, criteria, pageSize + 1, offset, searchTimeoutMs);
+        } catch (DataAccessException e) {
+            if (e.getMostSpecificCause() instanceof SQLException sqlException
+                    && QUERY_CANCELED.equals(sqlException.getSQLState())) {
+                throw new UserException("Search took too long, narrow it with more words or filters.");
+            }
+            throw e;
+        }
+        boolean hasMore = tasks.size() > pageSize;
+        return TaskSearchResponseDTO.builder()
+                .tasks(hasMore ? tasks.subList(0, pageSize) : tasks)
+                .page(page)
+                .size(pageSize)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesResponseDTO getChangesSince(Long userId, long since, Integer limit) {
+        if (since < 0) {
+            throw new UserException("Invalid sync version.");
+        }
+        // Read the watermark before the tasks: anything committed in between is sent again next time,
+        // which is harmless, whereas reading it afterwards could skip a change
+        TaskSyncState state = taskSyncStateRepository.findById(userId).orElse(null);
+        long current = state == null ? 0 : state.getVersion();
+        long purged = state == null ? 0 : state.getPurgedVersion();
+
+        if (since == 0) {
+            // Initial sync: the full live set, no tombstones needed
+            return TaskChangesResponseDTO.builder()
+                    .version(current)
+                    .upserts(getAllTasksByUser(userId))
+                    .deletions(List.of())
+                    .hasMore(false)
+                    .build();
+        }
+        if (since < purged || since > current) {
+            return TaskChangesResponseDTO.builder()
+                    .version(current)
+                    .upserts(List.of())
+                    .deletions(List.of())
+                    .fullResyncRequired(true)
+                    .build();
+        }
+
+        int pageSize = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+        List<Task> changed = taskRepository.findChangedSince(userId, since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changed.size() > pageSize;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+        }
+
+        List<TaskResponseDTO> upserts = new ArrayList<>();
+        List<Long> deletions = new ArrayList<>();
+        for (Task task : changed) {
+            if (task.isDeleted()) {
+                deletions.add(task.getId());
+            } else {
+                upserts.add(mapToResponseDTO(task));
+            }
+        }
+        return TaskChangesResponseDTO.builder()
+                .version(hasMore ? changed.get(changed.size() - 1).getChangeVersion() : current)
+                .upserts(upserts)
+                .deletions(deletions)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Same feed as getChangesSince, one event per change in version order for the event stream.
+    // A task still at @Version 0 has not been written since it was created; one created and then
+    // edited before the client caught up only shows up as updated, so clients treat both as upserts
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskChangeEventDTO> getChangeEventsSince(Long userId, long since, int limit) {
+        TaskSyncState state = taskSyncStateRepository.findById(userId).orElse(null);
+        if (state == null || since >= state.getVersion()) {
+            return List.of();
+        }
+        if (since < state.getPurgedVersion()) {
+            return List.of(TaskChangeEventDTO.builder()
+                    .version(state.getVersion())
+                    .type(TaskChangeEventDTO.RESYNC)
+                    .build());
+        }
 
-        return taskRepository.findByUserId(user.getId()).stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        List<TaskChangeEventDTO> events = new ArrayList<>();
+        for (Task task : taskRepository.findChangedSince(userId, since, PageRequest.of(0, limit))) {
+            TaskChangeEventDTO.TaskChangeEventDTOBuilder event = TaskChangeEventDTO.builder()
+                    .version(task.getChangeVersion())
+                    .taskId(task.getId());
+            if (task.isDeleted()) {
+                event.type(TaskChangeEventDTO.DELETED);
+            } else {
+                event.type(task.getVersion() == 0 ? TaskChangeEventDTO.CREATED : TaskChangeEventDTO.UPDATED)
+                        .task(mapToResponseDTO(task));
+            }
+            events.add(event.build());
+        }
+        return events;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasksByUser(Long userId, OutputStream outputStream) throws IOException {
+        // Write one JSON document per line as rows come off the cursor; rows are projected
+        // straight into DTOs, so nothing accumulates in the persistence context
+        try (Stream<TaskResponseDTO> tasks = taskRepository.streamByUserId(userId);
+             JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            Iterator<TaskResponseDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
     }
 
     @Override
-    public TaskResponseDTO getTaskById(Long taskId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found."));
-        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
+    @Transactional(readOnly = true)
+    public TaskResponseDTO getTaskById(Long taskId, Long userId) {
+        return taskRepository.findResponseByIdAndUserId(taskId, userId)
+                .or(() -> taskArchiveRepository.findResponseByIdAndUserId(taskId, userId))
                 .orElseThrow(() -> new UserException("Task not found or you don't have permission to view it."));
-        return mapToResponseDTO(task);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCollectionVersion(Long userId) {
+        return taskSyncStateRepository.findVersionByUserId(userId).orElse(0L);
     }
 
     @Override
     @Transactional
-    public TaskResponseDTO updateTask(Long taskId, TaskRequestDTO taskRequestDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found."));
-        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
+    public TaskResponseDTO updateTask(Long taskId, TaskRequestDTO taskRequestDTO, Long userId, Long expectedVersion) {
+        Task task = findWritableTask(taskId, userId)
                 .orElseThrow(() -> new UserException("Task not found or you don't have permission to update it."));
+        checkExpectedVersion(task, expectedVersion);
 
+        // Reserve before touching the entity: the native upsert flushes pending changes, which
+        // would otherwise write the task (and bump its @Version) twice
+        long changeVersion = reserveVersions(userId, 1);
         task.setTitle(taskRequestDTO.getTitle());
         task.setDescription(taskRequestDTO.getDescription());
         if (taskRequestDTO.getCompleted() != null) {
             task.setCompleted(taskRequestDTO.getCompleted());
         }
+        task.setChangeVersion(changeVersion);
 
-        Task updatedTask = taskRepository.save(task);
+        // Flush now so the response carries the new version and updatedAt
+        Task updatedTask = taskRepository.saveAndFlush(task);
         return mapToResponseDTO(updatedTask);
     }
 
     @Override
     @Transactional
-    public void deleteTask(Long taskId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found."));
-        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
+    public void deleteTask(Long taskId, Long userId, Long expectedVersion) {
+        Task task = findWritableTask(taskId, userId)
                 .orElseThrow(() -> new UserException("Task not found or you don't have permission to delete it."));
+        checkExpectedVersion(task, expectedVersion);
+
+        // Keep a tombstone for delta sync; TaskTombstonePurger removes it once it has aged out
+        long changeVersion = reserveVersions(userId, 1);
+        task.setDeleted(true);
+        task.setDeletedAt(LocalDateTime.now());
+        task.setDescription(null);
+        task.setChangeVersion(changeVersion);
+    }
+
+    // An archived task is moved back to the hot table before it is changed; the archive is only
+    // consulted when the task is not found, so writes to hot tasks cost nothing extra
+    private Optional<Task> findWritableTask(Long taskId, Long userId) {
+        Optional<Task> task = taskRepository.findByIdAndUserIdAndDeletedFalse(taskId, userId);
+        if (task.isEmpty() && taskArchiveRepository.restore(userId, List.of(taskId)) > 0) {
+            task = taskRepository.findByIdAndUserIdAndDeletedFalse(taskId, userId);
+        }
+        return task;
+    }
+
+    // A concurrent writer that slips in after this check is still caught by the @Version check on flush
+    private static void checkExpectedVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Task has changed since it was read, reload it and try again.");
+        }
+    }
+
+    // Operations are applied grouped by kind (creates, updates, completes, deletes) so each kind
+    // costs one batched or set-based statement; results keep the request order
+    @Override
+    @Transactional
+    public List<TaskBatchResultDTO> applyBatch(List<TaskBatchOperationDTO> operations, Long userId) {
+        if (operations.size() > maxBatchOperations) {
+            throw new UserException("A batch can contain at most " + maxBatchOperations + " operations.");
+        }
+
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[operations.size()];
+        List<Integer> creates = new ArrayList<>();
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> completes = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchOperationDTO operation = operations.get(i);
+            boolean needsId = operation.getOp() != TaskBatchOperationDTO.Operation.CREATE;
+            boolean needsTask = operation.getOp() == TaskBatchOperationDTO.Operation.CREATE
+                    || operation.getOp() == TaskBatchOperationDTO.Operation.UPDATE;
+            if (needsId && operation.getId() == null) {
+                results[i] = batchResult(i, operation, TaskBatchResultDTO.Status.INVALID, "Task id is required.", null);
+            } else if (needsTask && operation.getTask() == null) {
+                results[i] = batchResult(i, operation, TaskBatchResultDTO.Status.INVALID, "Task body is required.", null);
+            } else {
+                switch (operation.getOp()) {
+                    case CREATE -> creates.add(i);
+                    case UPDATE -> updates.add(i);
+                    case COMPLETE -> completes.add(i);
+                    case DELETE -> deletes.add(i);
+                }
+            }
+        }
+
+        // Archived tasks named by the batch are restored first, so they resolve like any other.
+        // When none are archived this is one primary key probe in the user's archive partition
+        Set<Long> named = new HashSet<>();
+        named.addAll(idsOf(operations, updates));
+        named.addAll(idsOf(operations, completes));
+        named.addAll(idsOf(operations, deletes));
+        if (!named.isEmpty()) {
+            taskArchiveRepository.restore(userId, named);
+        }
+
+        // Resolve ownership first so one block of change versions can be reserved for the whole batch
+        Map<Long, Task> updatable = updates.isEmpty() ? Map.of()
+                : taskRepository.findByUserIdAndIdInAndDeletedFalse(userId, idsOf(operations, updates)).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Set<Long> completable = completes.isEmpty() ? Set.of()
+                : new HashSet<>(taskRepository.findOwnedIds(userId, idsOf(operations, completes)));
+        Set<Long> deletable = deletes.isEmpty() ? Set.of()
+                : new HashSet<>(taskRepository.findOwnedIds(userId, idsOf(operations, deletes)));
+        int changes = creates.size() + completable.size() + deletable.size();
+        for (int i : updates) {
+            if (updatable.containsKey(operations.get(i).getId())) {
+                changes++;
+            }
+        }
+        long nextVersion = changes == 0 ? 0 : reserveVersions(userId, changes);
+
+        if (!creates.isEmpty()) {
+            User user = userRepository.getReferenceById(userId);
+            List<Task> newTasks = new ArrayList<>(creates.size());
+            for (int i : creates) {
+                TaskRequestDTO request = operations.get(i).getTask();
+                newTasks.add(Task.builder()
+                        .title(request.getTitle())
+                        .description(request.getDescription())
+                        .completed(Boolean.TRUE.equals(request.getCompleted()))
+                        .user(user)
+                        .changeVersion(nextVersion++)
+                        .build());
+            }
+            List<Task> saved = taskRepository.saveAll(newTasks);
+            for (int k = 0; k < creates.size(); k++) {
+                int i = creates.get(k);
+                results[i] = batchResult(i, operations.get(i), TaskBatchResultDTO.Status.OK, null, mapToResponseDTO(saved.get(k)));
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            for (int i : updates) {
+                Task task = updatable.get(operations.get(i).getId());
+                if (task != null) {
+                    TaskRequestDTO request = operations.get(i).getTask();
+                    task.setTitle(request.getTitle());
+                    task.setDescription(request.getDescription());
+                    if (request.getCompleted() != null) {
+                        task.setCompleted(request.getCompleted());
+                    }
+                    task.setChangeVersion(nextVersion++);
+                }
+            }
+            // Push the batched UPDATEs now so the returned DTOs carry the new updatedAt
+            taskRepository.flush();
+            for (int i : updates) {
+                Task task = updatable.get(operations.get(i).getId());
+                results[i] = task == null
+                        ? batchResult(i, operations.get(i), TaskBatchResultDTO.Status.NOT_FOUND, "Task not found.", null)
+                        : batchResult(i, operations.get(i), TaskBatchResultDTO.Status.OK, null, mapToResponseDTO(task));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!completes.isEmpty()) {
+            if (!completable.isEmpty()) {
+                taskRepository.markCompleted(userId, completable, now, nextVersion);
+                nextVersion += completable.size();
+            }
+            recordSetResults(operations, completes, completable, results);
+        }
 
-        taskRepository.delete(task);
+        if (!deletes.isEmpty()) {
+            if (!deletable.isEmpty()) {
+                taskRepository.tombstoneOwned(userId, deletable, now, nextVersion);
+            }
+            recordSetResults(operations, deletes, deletable, results);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // Returns the first of `count` consecutive change versions reserved for the user. Every write
+    // goes through here, so this is also where the change is announced to TaskEventHub
+    private long reserveVersions(Long userId, int count) {
+        long last = taskSyncStateRepository.reserveVersions(userId, count);
+        eventPublisher.publishEvent(new TaskChangedEvent(userId, last));
+        return last - count + 1;
+    }
+
+    private static Set<Long> idsOf(List<TaskBatchOperationDTO> operations, List<Integer> indexes) {
+        Set<Long> ids = new HashSet<>();
+        for (int i : indexes) {
+            ids.add(operations.get(i).getId());
+        }
+        return ids;
+    }
+
+    private static void recordSetResults(List<TaskBatchOperationDTO> operations, List<Integer> indexes,
+                                         Set<Long> owned, TaskBatchResultDTO[] results) {
+        for (int i : indexes) {
+            TaskBatchOperationDTO operation = operations.get(i);
+            results[i] = owned.contains(operation.getId())
+                    ? batchResult(i, operation, TaskBatchResultDTO.Status.OK, null, null)
+                    : batchResult(i, operation, TaskBatchResultDTO.Status.NOT_FOUND, "Task not found.", null);
+        }
+    }
+
+    private static TaskBatchResultDTO batchResult(int index, TaskBatchOperationDTO operation,
+                                                  TaskBatchResultDTO.Status status, String error, TaskResponseDTO task) {
+        return TaskBatchResultDTO.builder()
+                .index(index)
+                .op(operation.getOp())
+                .id(task != null ? task.getId() : operation.getId())
+                .status(status)
+                .error(error)
+                .task(task)
+                .build();
     }
 
     private TaskResponseDTO mapToResponseDTO(Task task) {
@@ -97,6 +556,7 @@ public class TaskServiceImpl implements TaskService {
                 .completed(task.isCompleted())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
 }
\ No newline at end of file
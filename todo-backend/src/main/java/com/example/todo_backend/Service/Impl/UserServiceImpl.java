@@ -1,20 +1,31 @@
 package com.example.todo_backend.Service.Impl;
+import com.example.todo_backend.Config.CacheConfig;
+import com.example.todo_backend.DTOs.AccountDeletionDTO;
 import com.example.todo_backend.Exception.UserException;
 import com.example.todo_backend.DTOs.UserRegistrationDTO;
 import com.example.todo_backend.DTOs.UserResponseDTO;
+import com.example.todo_backend.DTOs.UserSnapshot;
 import com.example.todo_backend.Entity.User;
+import com.example.todo_backend.Persistence.ReplicaRoutingDataSource;
 import com.example.todo_backend.Repository.UserRepository;
+import com.example.todo_backend.Service.AccountDeletionService;
 import com.example.todo_backend.Service.EmailService;
 import com.example.todo_backend.Service.OtpService;
+import com.example.todo_backend.Service.RegisteredUserFilter;
+import com.example.todo_backend.Service.UserCacheInvalidator;
 import com.example.todo_backend.Service.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 @Slf4j
 @Service
@@ -29,18 +40,26 @@ public class UserServiceImpl implements UserService {
     private OtpService otpService;
     @Autowired
     private EmailService emailService;
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
+    private RegisteredUserFilter registeredUserFilter;
 
     @Override
     @Transactional
     public UserResponseDTO registerUser(UserRegistrationDTO userRegistrationDTO) {
-        if (userRepository.existsByEmail(userRegistrationDTO.getEmail())) {
-            throw new UserException("Email is already in use.");
+        String email = userRegistrationDTO.getEmail();
+        String number = userRegistrationDTO.getNumber();
+        // Brand-new identifiers skip the lookup; otherwise one query tells which one is taken
+        // before any time goes into hashing the password
+        if (registeredUserFilter.mightBeTaken(email, number)) {
+            List<String> holders = userRepository.findEmailsHolding(email, number, Limit.of(1));
+            if (!holders.isEmpty()) {
+                throw new UserException(holders.get(0).equals(email) ? "Email is already in use." : "Number is already in use.");
+            }
         }
-        if (userRepository.existsByNumber(userRegistrationDTO.getNumber())) {
-            throw new UserException("Number is already in use.");
-        }
-
-        String otp = otpService.generateOtp();
 
         User newUser = User.builder()
                 .name(userRegistrationDTO.getName())
@@ -48,13 +67,19 @@ public class UserServiceImpl implements UserService {
                 .number(userRegistrationDTO.getNumber())
                 .password(passwordEncoder.encode(userRegistrationDTO.getPassword()))
                 .enabled(false) // User is not enabled until OTP is verified
-                .otp(otp)
-                .otpGeneratedTime(LocalDateTime.now())
                 .build();
 
-        User savedUser = userRepository.save(newUser);
+        User savedUser;
+        try {
+            // The unique constraints settle concurrent registrations of the same identifiers
+            savedUser = userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(e, "Email is already in use.", "Number is already in use.");
+        }
+        registeredUserFilter.add(email, number);
 
         // Send OTP to user's email
+        String otp = otpService.issueOtp(OtpService.Purpose.ACCOUNT_VERIFICATION, savedUser.getEmail());
         emailService.sendOtpEmail(savedUser.getEmail(), savedUser.getName(), otp);
 
         // We don't return user details until they are verified
@@ -70,18 +95,27 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByEmail(email);
     }
 
+    // Cached read paths; misses are not cached so a user registering right after a failed lookup is found.
+    // They read the primary, as a row from a lagging replica would stay cached until the next eviction
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, key = "#id", unless = "#result == null")
+    public Optional<UserSnapshot> findSnapshotById(Long id) {
+        return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findById(id).map(UserSnapshot::of));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result == null")
+    public Optional<UserSnapshot> findSnapshotByEmail(String email) {
+        return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(email).map(UserSnapshot::of));
+    }
+
 
     @Override
     @Transactional
     public UserResponseDTO updateUser(String email, User user) {
         User existingUser=userRepository.findByEmail(email)
                 .orElseThrow(()->new UserException("User with email "+email+" not found."));
-        if(!existingUser.getEmail().equals(user.getEmail())&& userRepository.existsByEmail(user.getEmail())){
-            throw new UserException("New email is already in use by another user.");
-        }
-        if(!existingUser.getNumber().equals(user.getNumber())&& userRepository.existsByNumber(user.getNumber())){
-            throw new UserException("New number is already in use by another user.");
-        }
+        String previousEmail = existingUser.getEmail();
         existingUser.setName(user.getName());
         existingUser.setNumber(user.getNumber());
         existingUser.setEmail(user.getEmail());
@@ -89,7 +123,14 @@ public class UserServiceImpl implements UserService {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
         }
 
-        User updatedUser = userRepository.save(existingUser);
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(existingUser);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(e, "New email is already in use by another user.", "New number is already in use by another user.");
+        }
+        registeredUserFilter.add(updatedUser.getEmail(), updatedUser.getNumber());
+        userCacheInvalidator.invalidate(updatedUser.getId(), previousEmail, updatedUser.getEmail());
         return UserResponseDTO.builder()
                 .name(updatedUser.getName())
                 .email(updatedUser.getEmail())
@@ -98,11 +139,26 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void deleteUserByEmail(String email) {
-        Optional<User> existingUser = userRepository.findByEmail(email);
-        if (existingUser.isEmpty()) {
-            throw new UserException("User with email " + email + " not found.");
+    public AccountDeletionDTO deleteUserByEmail(String email) {
+        // Not transactional: the deletion commits chunk by chunk
+        User existingUser = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UserException("User with email " + email + " not found."));
+        return accountDeletionService.delete(existingUser.getId(), email);
+    }
+
+    // Maps a violated unique constraint on users to the message for the identifier that clashed
+    private static RuntimeException duplicate(DataIntegrityViolationException e, String emailMessage, String numberMessage) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String constraint = violation.getConstraintName().toLowerCase();
+                if (constraint.equals("uk_users_email")) {
+                    return new UserException(emailMessage);
+                }
+                if (constraint.equals("uk_users_number")) {
+                    return new UserException(numberMessage);
+                }
+            }
         }
-        userRepository.delete(existingUser.get());
+        return e;
     }
 }
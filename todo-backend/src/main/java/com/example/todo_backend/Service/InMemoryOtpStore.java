@@ -0,0 +1,102 @@
+package com.example.todo_backend.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Single-node OTP store. Codes live in a ConcurrentHashMap; expiry is driven by a hashed timing
+// wheel of one-second slots, so each tick only looks at the keys due in that second instead of
+// scanning the whole map. Expired entries are also rejected on read, so the wheel only reclaims memory
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final long TICK_MS = 1000;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String>[] wheel;
+    private long lastTick = System.currentTimeMillis() / TICK_MS;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(@Value("${app.otp.wheel-slots:512}") int slots) {
+        wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public void put(String key, String codeHash, long expiresAtMillis) {
+        entries.put(key, new Entry(codeHash, expiresAtMillis, 0));
+        schedule(key, expiresAtMillis);
+    }
+
+    @Override
+    public CheckResult check(String key, String codeHash, int maxAttempts, long nowMillis) {
+        CheckResult[] result = {CheckResult.MISSING};
+        entries.computeIfPresent(key, (k, entry) -> {
+            if (entry.expiresAtMillis <= nowMillis) {
+                return null;
+            }
+            if (entry.codeHash.equals(codeHash)) {
+                result[0] = CheckResult.MATCH;
+                return null;
+            }
+            if (entry.attempts + 1 >= maxAttempts) {
+                result[0] = CheckResult.LOCKED;
+                return null;
+            }
+            result[0] = CheckResult.MISMATCH;
+            return new Entry(entry.codeHash, entry.expiresAtMillis, entry.attempts + 1);
+        });
+        return result[0];
+    }
+
+    // Advances the wheel to the current second, evicting whatever expired in the slots passed over
+    @Scheduled(fixedRate = TICK_MS)
+    public synchronized void tick() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / TICK_MS;
+        // After a long pause one lap covers every slot
+        long from = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+        for (long t = from; t <= currentTick; t++) {
+            Queue<String> slot = wheel[(int) (t % wheel.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                String key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.expiresAtMillis <= now) {
+                    entries.remove(key, entry);
+                } else {
+                    // Re-issued with a later expiry, or due more than one lap ahead
+                    schedule(key, entry.expiresAtMillis);
+                }
+            }
+        }
+        lastTick = currentTick;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void schedule(String key, long expiresAtMillis) {
+        // Never schedule further ahead than one lap; tick() re-schedules until the entry is due
+        long dueTick = Math.min(expiresAtMillis / TICK_MS + 1,
+                System.currentTimeMillis() / TICK_MS + wheel.length - 1);
+        wheel[(int) (dueTick % wheel.length)].add(key);
+    }
+
+    private record Entry(String codeHash, long expiresAtMillis, int attempts) {
+    }
+}
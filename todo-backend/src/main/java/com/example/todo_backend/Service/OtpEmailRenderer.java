@@ -0,0 +1,125 @@
+package com.example.todo_backend.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Splits the OTP template once at startup into static fragments and ${name}/${otp} slots so
+// each email is a single pre-sized StringBuilder pass; templates using anything beyond plain
+// th:text on those two variables are left to Thymeleaf
+@Slf4j
+@Component
+public class OtpEmailRenderer {
+
+    static final String TEMPLATE_LOCATION = "templates/otp-email-template.html";
+
+    private static final String TH_NAMESPACE = " xmlns:th=\"http://www.thymeleaf.org\"";
+    private static final Pattern TEXT_SLOT = Pattern.compile(
+            "<(\\w+)([^>]*?)\\s+th:text=\"\\$\\{(name|otp)}\"([^>]*)>[^<]*</\\1>");
+    // Any other Thymeleaf attribute or inline expression means the template is not "simple"
+    private static final Pattern OTHER_THYMELEAF = Pattern.compile("\\s(th|data-th)[:-][\\w-]+=|\\$\\{|\\[\\[|\\[\\(");
+
+    private String[] fragments;
+    private boolean[] slotIsOtp;
+    private int staticLength;
+    private boolean precompiled;
+
+    @PostConstruct
+    public void init() {
+        try {
+            String template = StreamUtils.copyToString(
+                    new ClassPathResource(TEMPLATE_LOCATION).getInputStream(), StandardCharsets.UTF_8);
+            compile(template);
+        } catch (IOException e) {
+            log.warn("Could not read {}, falling back to Thymeleaf", TEMPLATE_LOCATION, e);
+            precompiled = false;
+        }
+    }
+
+    void compile(String template) {
+        String source = template.replace(TH_NAMESPACE, "");
+        List<String> parts = new ArrayList<>();
+        List<Boolean> slots = new ArrayList<>();
+        Matcher matcher = TEXT_SLOT.matcher(source);
+        StringBuilder current = new StringBuilder();
+        int last = 0;
+        while (matcher.find()) {
+            String tag = matcher.group(1);
+            current.append(source, last, matcher.start())
+                    .append('<').append(tag).append(matcher.group(2)).append(matcher.group(4)).append('>');
+            parts.add(current.toString());
+            slots.add("otp".equals(matcher.group(3)));
+            current = new StringBuilder("</").append(tag).append('>');
+            last = matcher.end();
+        }
+        parts.add(current.append(source.substring(last)).toString());
+
+        String staticText = String.join("", parts);
+        if (slots.isEmpty() || OTHER_THYMELEAF.matcher(staticText).find()) {
+            log.info("{} uses features beyond simple text slots, rendering with Thymeleaf", TEMPLATE_LOCATION);
+            precompiled = false;
+            return;
+        }
+
+        fragments = parts.toArray(new String[0]);
+        slotIsOtp = new boolean[slots.size()];
+        for (int i = 0; i < slotIsOtp.length; i++) {
+            slotIsOtp[i] = slots.get(i);
+        }
+        staticLength = staticText.length();
+        precompiled = true;
+    }
+
+    public boolean isPrecompiled() {
+        return precompiled;
+    }
+
+    public String render(String name, String otp) {
+        if (!precompiled) {
+            throw new IllegalStateException("OTP template is not precompiled");
+        }
+        // Escaping can grow a value, so leave some headroom beyond the raw lengths
+        int valueLength = 0;
+        for (boolean isOtp : slotIsOtp) {
+            valueLength += isOtp ? length(otp) : length(name);
+        }
+        StringBuilder html = new StringBuilder(staticLength + valueLength + (valueLength >> 1) + 16);
+        html.append(fragments[0]);
+        for (int i = 0; i < slotIsOtp.length; i++) {
+            appendEscaped(html, slotIsOtp[i] ? otp : name);
+            html.append(fragments[i + 1]);
+        }
+        return html.toString();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    // Same escaping Thymeleaf applies for th:text in HTML mode
+    private static void appendEscaped(StringBuilder html, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
@@ -1,24 +1,99 @@
 package com.example.todo_backend.Service;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
+import java.util.Base64;
 
 @Service
 public class OtpService {
 
     private static final long OTP_VALID_DURATION = 5; // 5 minutes
+    private static final long OTP_VALID_MILLIS = OTP_VALID_DURATION * 60 * 1000;
+
+    // SecureRandom is thread-safe; seeding a new one per code is the expensive part
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public enum Purpose {
+        ACCOUNT_VERIFICATION,
+        LOGIN
+    }
+
+    public enum Verification {
+        VALID,
+        INVALID,
+        EXPIRED,
+        TOO_MANY_ATTEMPTS
+    }
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    // Keyed hash so a leaked store does not reveal codes; defaults to the JWT secret so all nodes agree
+    @Value("${app.otp.hmac-secret:${jwt.secret}}")
+    private String hmacSecret;
+
+    private ThreadLocal<Mac> hmac;
+
+    @PostConstruct
+    public void init() {
+        SecretKeySpec key = new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        hmac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
 
     public String generateOtp() {
-        SecureRandom random = new SecureRandom();
-        int otp = 100000 + random.nextInt(900000);
+        int otp = 100000 + RANDOM.nextInt(900000);
         return String.valueOf(otp);
     }
 
-    public boolean isOtpValid(LocalDateTime otpGeneratedTime) {
-        if (otpGeneratedTime == null) {
-            return false;
+    // Generates a code for the email and purpose, replacing any earlier one, and returns it for delivery
+    public String issueOtp(Purpose purpose, String email) {
+        String otp = generateOtp();
+        String key = key(purpose, email);
+        otpStore.put(key, hash(key, otp), System.currentTimeMillis() + OTP_VALID_MILLIS);
+        return otp;
+    }
+
+    public Verification verifyOtp(Purpose purpose, String email, String otp) {
+        if (otp == null) {
+            return Verification.INVALID;
         }
-        return otpGeneratedTime.plusMinutes(OTP_VALID_DURATION).isAfter(LocalDateTime.now());
+        String key = key(purpose, email);
+        return switch (otpStore.check(key, hash(key, otp), maxAttempts, System.currentTimeMillis())) {
+            case MATCH -> Verification.VALID;
+            case MISMATCH -> Verification.INVALID;
+            case LOCKED -> Verification.TOO_MANY_ATTEMPTS;
+            case MISSING -> Verification.EXPIRED;
+        };
+    }
+
+    private static String key(Purpose purpose, String email) {
+        return purpose.name() + ':' + email;
+    }
+
+    // The key is mixed in so the same code issued to two users hashes differently
+    private String hash(String key, String otp) {
+        Mac mac = hmac.get();
+        mac.update(key.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(otp.getBytes(StandardCharsets.UTF_8)));
     }
-}
\ No newline at end of file
+}
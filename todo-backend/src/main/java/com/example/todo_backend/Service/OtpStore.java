@@ -0,0 +1,21 @@
+package com.example.todo_backend.Service;
+
+// Storage for issued OTPs. Only an HMAC of the code is stored; implementations must make
+// check() atomic so concurrent guesses cannot exceed the attempt limit
+public interface OtpStore {
+
+    enum CheckResult {
+        MATCH,
+        MISMATCH,
+        // Wrong code and the attempt limit is now used up; the code has been discarded
+        LOCKED,
+        // Never issued, already used, or expired
+        MISSING
+    }
+
+    // Replaces any code already stored under the key and resets its attempt counter
+    void put(String key, String codeHash, long expiresAtMillis);
+
+    // A match consumes the code; a mismatch counts as one attempt
+    CheckResult check(String key, String codeHash, int maxAttempts, long nowMillis);
+}
@@ -0,0 +1,75 @@
+package com.example.todo_backend.Service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Shared OTP store for multi-node deployments, backed by the UNLOGGED otp_codes table: no WAL
+// traffic, and losing outstanding codes on a database crash only means users request new ones
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "postgres")
+public class PostgresOtpStore implements OtpStore {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // check() commits on its own: callers verify inside their own transaction and roll it back
+    // on a wrong code, which would otherwise undo the attempt count and the lockout with it
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    public void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void put(String key, String codeHash, long expiresAtMillis) {
+        jdbcTemplate.update("INSERT INTO otp_codes (otp_key, code_hash, expires_at, attempts) VALUES (?, ?, ?, 0) " +
+                "ON CONFLICT (otp_key) DO UPDATE SET code_hash = EXCLUDED.code_hash, " +
+                "expires_at = EXCLUDED.expires_at, attempts = 0", key, codeHash, expiresAtMillis);
+    }
+
+    @Override
+    public CheckResult check(String key, String codeHash, int maxAttempts, long nowMillis) {
+        return ownTransaction.execute(status -> checkAndCount(key, codeHash, maxAttempts, nowMillis));
+    }
+
+    private CheckResult checkAndCount(String key, String codeHash, int maxAttempts, long nowMillis) {
+        // Each statement is atomic on its own: a consumed code cannot be matched twice and
+        // concurrent wrong guesses each get their own increment
+        List<Integer> matched = jdbcTemplate.queryForList(
+                "DELETE FROM otp_codes WHERE otp_key = ? AND code_hash = ? AND expires_at > ? RETURNING 1",
+                Integer.class, key, codeHash, nowMillis);
+        if (!matched.isEmpty()) {
+            return CheckResult.MATCH;
+        }
+        List<Integer> attempts = jdbcTemplate.queryForList(
+                "UPDATE otp_codes SET attempts = attempts + 1 WHERE otp_key = ? AND expires_at > ? RETURNING attempts",
+                Integer.class, key, nowMillis);
+        if (attempts.isEmpty()) {
+            return CheckResult.MISSING;
+        }
+        if (attempts.get(0) >= maxAttempts) {
+            jdbcTemplate.update("DELETE FROM otp_codes WHERE otp_key = ?", key);
+            return CheckResult.LOCKED;
+        }
+        return CheckResult.MISMATCH;
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM otp_codes WHERE expires_at <= ?", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Messaging.PgNotificationBus;
+import com.example.todo_backend.Repository.UserRepository;
+import com.example.todo_backend.Util.BloomFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.stream.Stream;
+
+// Bloom filter of every email and number in use, so registrations with brand-new identifiers can
+// skip the uniqueness lookup. A "no" is certain; a "maybe" (taken, or a false positive) costs the
+// lookup. It is only a shortcut: the unique constraints stay the real guard, so identifiers it
+// has missed (written on a node without the bus, or during a rebuild) end in a rejected insert
+// rather than a duplicate. Deleted and changed identifiers stay in it until the next rebuild
+@Slf4j
+@Component
+public class RegisteredUserFilter {
+
+    static final String CHANNEL = "user_registered";
+
+    private static final String EMAIL = "e:";
+    private static final String NUMBER = "n:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<PgNotificationBus> notificationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.users.registered-filter.enabled:true}")
+    private boolean enabled;
+
+    // Sized for at least this many users, or twice the current count when that is larger
+    @Value("${app.users.registered-filter.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.users.registered-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Null until the first build, which makes every identifier a "maybe"
+    private volatile BloomFilter current;
+    // Filter being rebuilt; writes go to it as well so none are lost in the swap
+    private volatile BloomFilter next;
+
+    private Counter skipped;
+    private Counter checked;
+
+    @PostConstruct
+    public void init() {
+        notificationBus.ifAvailable(bus -> bus.subscribe(CHANNEL, this::onRemoteRegistration));
+        skipped = Counter.builder("users.registration.lookups").tag("result", "skipped").register(meterRegistry);
+        checked = Counter.builder("users.registration.lookups").tag("result", "checked").register(meterRegistry);
+    }
+
+    // False only when neither identifier can be in use
+    public boolean mightBeTaken(String email, String number) {
+        BloomFilter filter = current;
+        boolean maybe = !enabled || filter == null
+                || filter.mightContain(EMAIL + email) || filter.mightContain(NUMBER + number);
+        (maybe ? checked : skipped).increment();
+        return maybe;
+    }
+
+    // Call with the identifiers of every user written; other nodes learn them once it commits
+    public void add(String email, String number) {
+        addLocally(email, number);
+        eventPublisher.publishEvent(new UserRegistered(email, number));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(UserRegistered registered) {
+        PgNotificationBus bus = notificationBus.getIfAvailable();
+        if (bus != null) {
+            try {
+                bus.publish(CHANNEL, objectMapper.writeValueAsString(registered));
+            } catch (JsonProcessingException | RuntimeException e) {
+                // The other nodes fall back to the unique constraint for this user
+                log.warn("Could not broadcast registration of {}", registered.getEmail(), e);
+            }
+        }
+    }
+
+    // Runs at startup and then periodically, which also drops deleted and changed identifiers
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.users.registered-filter.rebuild-interval-ms:86400000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long users = userRepository.count();
+        BloomFilter filter = new BloomFilter(2 * Math.max(expectedUsers, 2 * users), falsePositiveRate);
+        next = filter;
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                try (Stream<Object[]> identifiers = userRepository.streamEmailsAndNumbers()) {
+                    identifiers.forEach(row -> {
+                        filter.put(EMAIL + row[0]);
+                        filter.put(NUMBER + row[1]);
+                    });
+                }
+            });
+            current = filter;
+            log.info("Registration filter rebuilt for {} users ({} KB)", users, filter.sizeInBytes() / 1024);
+        } finally {
+            next = null;
+        }
+    }
+
+    private void addLocally(String email, String number) {
+        for (BloomFilter filter : new BloomFilter[]{current, next}) {
+            if (filter != null) {
+                filter.put(EMAIL + email);
+                filter.put(NUMBER + number);
+            }
+        }
+    }
+
+    private void onRemoteRegistration(String payload) {
+        try {
+            UserRegistered registered = objectMapper.readValue(payload, UserRegistered.class);
+            if (registered.getEmail() != null && registered.getNumber() != null) {
+                addLocally(registered.getEmail(), registered.getNumber());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed registration: {}", payload);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UserRegistered {
+        private String email;
+        private String number;
+    }
+}
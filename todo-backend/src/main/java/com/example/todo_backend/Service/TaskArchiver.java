@@ -0,0 +1,56 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Repository.TaskArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+
+// Moves tasks completed more than archive-after-days ago (by their last change) from tasks to
+// tasks_archive, so the hot table and its indexes only hold open and recently finished work.
+// The moved tasks keep their change versions, so delta sync clients see nothing, but the user's
+// collection version is bumped: the default list has lost them, and its ETag must change too
+@Slf4j
+@Component
+public class TaskArchiver {
+
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Value("${app.tasks.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tasks.archive.archive-after-days:90}")
+    private int archiveAfterDays;
+
+    @Value("${app.tasks.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.tasks.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(archiveAfterDays);
+        long total = 0;
+        int moved;
+        // Each chunk moves and bumps in its own transaction, so a user's sync row is held for
+        // one chunk at most. Archivers on other nodes skip the sync rows and tasks locked here and
+        // move other users' tasks instead, so they never block on or duplicate each other
+        do {
+            moved = transactionOperations.execute(status -> taskArchiveRepository.archiveCompletedBefore(cutoff, batchSize, now));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} tasks completed before {}", total, cutoff);
+        }
+    }
+}
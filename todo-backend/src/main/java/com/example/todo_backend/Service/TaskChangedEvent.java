@@ -0,0 +1,14 @@
+package com.example.todo_backend.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// A user's tasks reached a new change version; also the payload sent to other nodes
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskChangedEvent {
+    private Long userId;
+    private long version;
+}
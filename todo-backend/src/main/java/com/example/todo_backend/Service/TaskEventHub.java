@@ -0,0 +1,376 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.DTOs.TaskChangeEventDTO;
+import com.example.todo_backend.Messaging.PgNotificationBus;
+import com.example.todo_backend.Persistence.ReplicaRoutingDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fan-out of task changes to open /api/tasks/stream connections. An idle stream is an async
+// servlet request parked in Tomcat's NIO poller, so it costs a socket and a few objects but no
+// thread. A change only carries (user, version): the worker pool then reads everything after
+// each stream's last sent version from the change feed, which also serves Last-Event-ID
+// resumes and makes a lost notification heal on the user's next change. Those reads go to the
+// primary: a replica may not have replayed the commit the notification is about.
+// The workers never write to a socket themselves: each stream has its own queue, flushed on the
+// send pool, and a stream whose send stalls or whose queue overflows is dropped, so one slow
+// client only ever holds up its own connection
+@Slf4j
+@Component
+public class TaskEventHub {
+
+    static final String CHANNEL = "task_changes";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<PgNotificationBus> notificationBus;
+
+    @Autowired
+    @Qualifier("taskEventExecutor")
+    private Executor taskEventExecutor;
+
+    @Autowired
+    @Qualifier("taskStreamSendExecutor")
+    private Executor taskStreamSendExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Streams are closed after this long; EventSource-style clients reconnect with Last-Event-ID
+    @Value("${app.tasks.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.tasks.stream.batch-size:100}")
+    private int batchSize;
+
+    // A client that has not taken a single event for this long, or has this many waiting, is dropped
+    @Value("${app.tasks.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.tasks.stream.max-queued-events:1000}")
+    private int maxQueuedEvents;
+
+    private final Map<Long, UserStreams> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        notificationBus.ifAvailable(bus -> bus.subscribe(CHANNEL, this::onRemoteChange));
+        Gauge.builder("tasks.stream.connections", openStreams, AtomicInteger::get)
+                .description("Open task event streams on this node")
+                .register(meterRegistry);
+    }
+
+    // lastEventId is the last change version the client has applied; without one it starts from now
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(emitter);
+        Runnable remove = () -> unsubscribe(userId, subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Registered before the version is read: a change committed after the read is then either
+        // notified once the stream is ready, or found by the catch-up below
+        UserStreams user = streams.compute(userId, (id, existing) -> {
+            UserStreams s = existing != null ? existing : new UserStreams(id);
+            s.subscriptions.add(subscription);
+            return s;
+        });
+        openStreams.incrementAndGet();
+        long current;
+        try {
+            current = ReplicaRoutingDataSource.onPrimary(() -> taskService.getCollectionVersion(userId));
+        } catch (RuntimeException e) {
+            unsubscribe(userId, subscription);
+            throw e;
+        }
+        boolean unknownPosition = lastEventId != null && (lastEventId < 0 || lastEventId > current);
+        long start = lastEventId == null || unknownPosition ? current : lastEventId;
+
+        // Queued before the stream is marked ready, so nothing from the workers can overtake it
+        TaskChangeEventDTO first = TaskChangeEventDTO.builder()
+                .version(start)
+                .type(unknownPosition ? TaskChangeEventDTO.RESYNC : TaskChangeEventDTO.READY)
+                .build();
+        if (enqueue(userId, subscription, event(first))) {
+            subscription.lastQueued = start;
+            subscription.ready = true;
+            // Also covers changes notified while the stream was not ready yet; usually an empty read
+            requestCatchUp(user);
+        }
+        return emitter;
+    }
+
+    // With the bus, NOTIFY is issued inside the writing transaction: PostgreSQL delivers it to
+    // every node, this one included, only if it commits and in commit order
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommit(TaskChangedEvent change) throws JsonProcessingException {
+        PgNotificationBus bus = notificationBus.getIfAvailable();
+        if (bus != null) {
+            bus.publish(CHANNEL, objectMapper.writeValueAsString(change));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(TaskChangedEvent change) {
+        if (notificationBus.getIfAvailable() == null) {
+            changed(change.getUserId(), change.getVersion());
+        }
+    }
+
+    private void onRemoteChange(String payload) {
+        try {
+            TaskChangedEvent change = objectMapper.readValue(payload, TaskChangedEvent.class);
+            changed(change.getUserId(), change.getVersion());
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed task change: {}", payload);
+        }
+    }
+
+    private void changed(Long userId, long version) {
+        UserStreams user = streams.get(userId);
+        if (user == null) {
+            return;
+        }
+        for (Subscription subscription : user.subscriptions) {
+            if (subscription.ready && subscription.lastQueued < version) {
+                requestCatchUp(user);
+                return;
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds connections that went away. Only queues
+    // the ping, so a slow socket cannot hold up the scheduler; queueing also drops stalled streams
+    @Scheduled(fixedDelayString = "${app.tasks.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (openStreams.get() == 0) {
+            return;
+        }
+        for (UserStreams user : streams.values()) {
+            for (Subscription subscription : user.subscriptions) {
+                if (subscription.ready) {
+                    enqueue(user.userId, subscription, SseEmitter.event().comment("ping"));
+                }
+            }
+        }
+    }
+
+    // At most one catch-up per user runs at a time; changes arriving meanwhile set the flag again
+    // and are picked up by the running loop, so sends to a stream stay in version order
+    private void requestCatchUp(UserStreams user) {
+        user.pending.set(true);
+        if (user.draining.compareAndSet(false, true)) {
+            try {
+                taskEventExecutor.execute(() -> drain(user));
+            } catch (RejectedExecutionException e) {
+                user.draining.set(false);
+                log.warn("Task event workers rejected the catch-up for user {}", user.userId, e);
+            }
+        }
+    }
+
+    private void drain(UserStreams user) {
+        do {
+            try {
+                while (user.pending.getAndSet(false)) {
+                    catchUp(user);
+                }
+            } catch (RuntimeException e) {
+                // Streams stay where they were and catch up on the next change or reconnect
+                log.warn("Could not send task changes to user {}", user.userId, e);
+            } finally {
+                user.draining.set(false);
+            }
+        } while (user.pending.get() && user.draining.compareAndSet(false, true));
+    }
+
+    private void catchUp(UserStreams user) {
+        List<Subscription> subscriptions = user.subscriptions.stream().filter(s -> s.ready).toList();
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long since = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            since = Math.min(since, subscription.lastQueued);
+        }
+
+        List<TaskChangeEventDTO> events;
+        do {
+            long after = since;
+            events = ReplicaRoutingDataSource.onPrimary(() -> taskService.getChangeEventsSince(user.userId, after, batchSize));
+            for (Subscription subscription : subscriptions) {
+                for (TaskChangeEventDTO event : events) {
+                    if (event.getVersion() <= subscription.lastQueued) {
+                        continue;
+                    }
+                    if (!enqueue(user.userId, subscription, event(event))) {
+                        break;
+                    }
+                    subscription.lastQueued = event.getVersion();
+                }
+            }
+            if (!events.isEmpty()) {
+                since = events.get(events.size() - 1).getVersion();
+            }
+        } while (events.size() == batchSize);
+    }
+
+    private static SseEmitter.SseEventBuilder event(TaskChangeEventDTO event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.getVersion()))
+                .name(event.getType())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    // Never blocks: the event is handed to the stream's own queue. Returns false once the stream
+    // has been dropped, either earlier or now because it is too far behind
+    private boolean enqueue(Long userId, Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.dropped) {
+            return false;
+        }
+        long sendStarted = subscription.sendStartedNanos;
+        boolean stalled = sendStarted != 0
+                && System.nanoTime() - sendStarted > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        if (stalled || subscription.queued.incrementAndGet() > maxQueuedEvents) {
+            log.info("Dropping slow task event stream of user {}", userId);
+            drop(userId, subscription);
+            return false;
+        }
+        subscription.outbox.add(event);
+        scheduleFlush(userId, subscription);
+        return true;
+    }
+
+    private void scheduleFlush(Long userId, Subscription subscription) {
+        if (subscription.flushing.compareAndSet(false, true)) {
+            try {
+                taskStreamSendExecutor.execute(() -> flush(userId, subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.flushing.set(false);
+                subscription.dropped = true;
+                unsubscribe(userId, subscription);
+                log.warn("Task stream senders rejected the flush for user {}", userId, e);
+            }
+        }
+    }
+
+    // One flush per stream at a time keeps its events in order. A dropped stream is also
+    // completed here, never by the thread that noticed it is slow: completing takes the emitter's
+    // lock, which a stalled send is still holding
+    private void flush(Long userId, Subscription subscription) {
+        do {
+            try {
+                SseEmitter.SseEventBuilder next;
+                while (!subscription.dropped && (next = subscription.outbox.poll()) != null) {
+                    subscription.queued.decrementAndGet();
+                    subscription.sendStartedNanos = System.nanoTime();
+                    try {
+                        subscription.emitter.send(next);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client has gone away, or the stream already completed
+                        drop(userId, subscription);
+                    } finally {
+                        subscription.sendStartedNanos = 0;
+                    }
+                }
+                if (subscription.dropped) {
+                    subscription.outbox.clear();
+                    complete(subscription);
+                    return;
+                }
+            } finally {
+                subscription.flushing.set(false);
+            }
+        } while ((subscription.dropped || !subscription.outbox.isEmpty())
+                && subscription.flushing.compareAndSet(false, true));
+    }
+
+    private void drop(Long userId, Subscription subscription) {
+        subscription.dropped = true;
+        unsubscribe(userId, subscription);
+        scheduleFlush(userId, subscription);
+    }
+
+    private static void complete(Subscription subscription) {
+        try {
+            subscription.emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed
+        }
+    }
+
+    private void unsubscribe(Long userId, Subscription subscription) {
+        AtomicBoolean removed = new AtomicBoolean();
+        streams.computeIfPresent(userId, (id, user) -> {
+            removed.set(user.subscriptions.remove(subscription));
+            return user.subscriptions.isEmpty() ? null : user;
+        });
+        if (removed.get()) {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    private static class UserStreams {
+        private final Long userId;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private UserStreams(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static class Subscription {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        // Set once the first event is queued; the workers leave the stream alone until then
+        private volatile boolean ready;
+        private volatile boolean dropped;
+        // Highest version handed to the outbox. Only written by the catch-up loop of the user,
+        // or before the stream is ready
+        private volatile long lastQueued;
+        // When the send in progress started, 0 while none is
+        private volatile long sendStartedNanos;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package com.example.todo_backend.Service;
 
+import com.example.todo_backend.DTOs.TaskBatchOperationDTO;
+import com.example.todo_backend.DTOs.TaskBatchResultDTO;
+import com.example.todo_backend.DTOs.TaskChangeEventDTO;
+import com.example.todo_backend.DTOs.TaskChangesResponseDTO;
+import com.example.todo_backend.DTOs.TaskPageResponseDTO;
 import com.example.todo_backend.DTOs.TaskRequestDTO;
 import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSearchCriteria;
+import com.example.todo_backend.DTOs.TaskSearchResponseDTO;
+import com.example.todo_backend.DTOs.TaskSummaryDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface TaskService {
-    TaskResponseDTO createTask(TaskRequestDTO taskRequestDTO, String userEmail);
-    List<TaskResponseDTO> getAllTasksByUser(String userEmail);
-    TaskResponseDTO getTaskById(Long taskId, String userEmail);
-    TaskResponseDTO updateTask(Long taskId, TaskRequestDTO taskRequestDTO, String userEmail);
-    void deleteTask(Long taskId, String userEmail);
+    TaskResponseDTO createTask(TaskRequestDTO taskRequestDTO, Long userId);
+    List<TaskResponseDTO> getAllTasksByUser(Long userId);
+    List<TaskResponseDTO> getAllTasksByUser(Long userId, boolean includeArchived);
+    List<TaskSummaryDTO> getTaskSummaries(Long userId);
+    TaskPageResponseDTO getTaskPage(Long userId, String cursor, Integer size);
+    TaskSearchResponseDTO searchTasks(Long userId, TaskSearchCriteria criteria);
+    TaskChangesResponseDTO getChangesSince(Long userId, long since, Integer limit);
+    List<TaskChangeEventDTO> getChangeEventsSince(Long userId, long since, int limit);
+    void exportTasksByUser(Long userId, OutputStream outputStream) throws IOException;
+    TaskResponseDTO getTaskById(Long taskId, Long userId);
+    long getCollectionVersion(Long userId);
+    // expectedVersion comes from If-Match; null applies the change unconditionally
+    TaskResponseDTO updateTask(Long taskId, TaskRequestDTO taskRequestDTO, Long userId, Long expectedVersion);
+    void deleteTask(Long taskId, Long userId, Long expectedVersion);
+    List<TaskBatchResultDTO> applyBatch(List<TaskBatchOperationDTO> operations, Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Repository.TaskSyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+
+// Hard-deletes tombstones of deleted tasks once every client has had time to sync them.
+// Clients whose watermark is older than a purged tombstone are told to resync from scratch
+@Slf4j
+@Component
+public class TaskTombstonePurger {
+
+    @Autowired
+    private TaskSyncStateRepository taskSyncStateRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Value("${app.tasks.tombstones.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.tasks.tombstones.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.tasks.tombstones.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        long purged;
+        // Each chunk commits on its own, so a tombstone is locked for one chunk at most. Nodes
+        // purging at the same time skip each other's locked tombstones and split the backlog;
+        // purged_version only ever goes up, whichever node finishes last
+        do {
+            purged = transactionOperations.execute(status -> taskSyncStateRepository.purgeTombstones(cutoff, batchSize));
+            total += purged;
+        } while (purged == batchSize);
+        if (total > 0) {
+            log.info("Purged {} task tombstones older than {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Config.CacheConfig;
+import com.example.todo_backend.Messaging.PgNotificationBus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Evicts cached user snapshots once the changing transaction has committed (evicting earlier
+// would let a concurrent read cache the old row again) and, when the notification bus is
+// enabled, tells the other nodes to do the same
+@Slf4j
+@Component
+public class UserCacheInvalidator {
+
+    static final String CHANNEL = "user_cache_evict";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<PgNotificationBus> notificationBus;
+
+    @PostConstruct
+    public void init() {
+        notificationBus.ifAvailable(bus -> bus.subscribe(CHANNEL, this::onRemoteEviction));
+    }
+
+    // Call with every email the user had before and after the change
+    public void invalidate(Long userId, String... emails) {
+        eventPublisher.publishEvent(new UserCacheEviction(userId, Arrays.stream(emails).filter(Objects::nonNull).toList()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(UserCacheEviction eviction) {
+        evictLocally(eviction);
+        PgNotificationBus bus = notificationBus.getIfAvailable();
+        if (bus != null) {
+            try {
+                bus.publish(CHANNEL, objectMapper.writeValueAsString(eviction));
+            } catch (JsonProcessingException | RuntimeException e) {
+                // Other nodes fall back to the cache TTL
+                log.warn("Could not broadcast user cache eviction for user {}", eviction.getUserId(), e);
+            }
+        }
+    }
+
+    private void onRemoteEviction(String payload) {
+        try {
+            evictLocally(objectMapper.readValue(payload, UserCacheEviction.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed user cache eviction: {}", payload);
+        }
+    }
+
+    private void evictLocally(UserCacheEviction eviction) {
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        if (byId != null && eviction.getUserId() != null) {
+            byId.evict(eviction.getUserId());
+        }
+        Cache byEmail = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        if (byEmail != null) {
+            eviction.getEmails().forEach(byEmail::evict);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UserCacheEviction {
+        private Long userId;
+        private List<String> emails;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.todo_backend.Service;
 
+import com.example.todo_backend.DTOs.AccountDeletionDTO;
 import com.example.todo_backend.DTOs.UserRegistrationDTO;
 import com.example.todo_backend.DTOs.UserResponseDTO;
+import com.example.todo_backend.DTOs.UserSnapshot;
 import com.example.todo_backend.Entity.User;
 
 import java.util.Optional;
@@ -9,6 +11,8 @@ import java.util.Optional;
 public interface UserService {
     UserResponseDTO registerUser(UserRegistrationDTO userRegistrationDTO);
     Optional<User>findByEmail(String email);
+    Optional<UserSnapshot> findSnapshotById(Long id);
+    Optional<UserSnapshot> findSnapshotByEmail(String email);
     UserResponseDTO updateUser(String email,User user);
-    void deleteUserByEmail(String email);
+    AccountDeletionDTO deleteUserByEmail(String email);
 }
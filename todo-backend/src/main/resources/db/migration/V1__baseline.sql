@@ -0,0 +1,26 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update), before any of the migrations
+-- after it. Existing databases are baselined at this version without running it, so it must not
+-- contain anything they lack. Constraint names are left to the database, as Hibernate's were.
+
+CREATE TABLE users (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name               VARCHAR(255) NOT NULL,
+    email              VARCHAR(255) NOT NULL UNIQUE,
+    number             VARCHAR(255) NOT NULL UNIQUE,
+    enabled            BOOLEAN      NOT NULL,
+    password           VARCHAR(255) NOT NULL,
+    otp                VARCHAR(255),
+    otp_generated_time TIMESTAMP(6),
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
+
+CREATE TABLE tasks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    completed   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    user_id     BIGINT       NOT NULL REFERENCES users (id)
+);
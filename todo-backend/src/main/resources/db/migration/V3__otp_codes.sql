@@ -0,0 +1,13 @@
+-- OTPs move out of users into a dedicated store (see OtpStore). The table is UNLOGGED:
+-- codes are short-lived, so skipping the WAL is worth losing them on a crash.
+CREATE UNLOGGED TABLE otp_codes (
+    otp_key    VARCHAR(320) PRIMARY KEY,
+    code_hash  VARCHAR(64)  NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    attempts   INTEGER      NOT NULL
+);
+
+CREATE INDEX idx_otp_codes_expires_at ON otp_codes (expires_at);
+
+ALTER TABLE users DROP COLUMN otp;
+ALTER TABLE users DROP COLUMN otp_generated_time;
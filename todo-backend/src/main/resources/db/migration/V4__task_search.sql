@@ -0,0 +1,11 @@
+-- Full-text search over title (weight A) and description (weight B). The vector is a stored
+-- generated column, so every insert/update path (JPA, native batch statements, the reactive
+-- service) keeps it current without application code; Hibernate never maps or writes it.
+ALTER TABLE tasks ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Matches are combined with idx_tasks_user_id / idx_tasks_user_completed_created in a bitmap AND
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
@@ -0,0 +1,3 @@
+-- Optimistic locking version of each task (JPA @Version), also the task's ETag. Every write
+-- path bumps it: Hibernate for entity updates, the native batch statements explicitly
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
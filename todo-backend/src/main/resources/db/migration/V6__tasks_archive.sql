@@ -0,0 +1,34 @@
+-- Cold tier for tasks completed long ago (see TaskArchiver). Rows keep their id, versions and
+-- timestamps so they can be moved back unchanged; archived tasks are completed by definition.
+-- Hash partitions on user_id: every archive query is per user, so it touches one partition and
+-- the partitions stay small enough to vacuum and reindex one at a time
+CREATE TABLE tasks_archive (
+    id             BIGINT       NOT NULL,
+    title          VARCHAR(255) NOT NULL,
+    description    TEXT,
+    created_at     TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    change_version BIGINT       NOT NULL,
+    version        BIGINT       NOT NULL,
+    user_id        BIGINT       NOT NULL,
+    archived_at    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_tasks_archive PRIMARY KEY (user_id, id),
+    CONSTRAINT fk_tasks_archive_user FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE tasks_archive_p0 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE tasks_archive_p1 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE tasks_archive_p2 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE tasks_archive_p3 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE tasks_archive_p4 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE tasks_archive_p5 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE tasks_archive_p6 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE tasks_archive_p7 PARTITION OF tasks_archive FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- Listing with includeArchived
+CREATE INDEX idx_tasks_archive_user_created_id ON tasks_archive (user_id, created_at, id);
+
+-- Lets the archiver find its candidates without scanning the open tasks. A task that was never
+-- updated after creation counts as completed when it was created
+CREATE INDEX idx_tasks_completed_last_change ON tasks ((COALESCE(updated_at, created_at)))
+    WHERE completed AND NOT deleted;
@@ -0,0 +1,5 @@
+-- Users whose tasks predate delta sync have no task_sync_state row yet. The archiver only moves
+-- tasks of users it can lock a row for, and bumps that row so the list's ETag changes.
+INSERT INTO task_sync_state (user_id, version, purged_version)
+SELECT DISTINCT user_id, 0, 0 FROM tasks
+ON CONFLICT (user_id) DO NOTHING;
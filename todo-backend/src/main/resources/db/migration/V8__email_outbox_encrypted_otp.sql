@@ -0,0 +1,6 @@
+-- Queued OTPs are stored encrypted (EmailService) instead of in plain text. Plain codes cannot be
+-- encrypted here, so rows still holding one are dropped: pending codes expire within minutes
+-- anyway and the user can request a new one.
+DELETE FROM email_outbox;
+ALTER TABLE email_outbox DROP COLUMN otp;
+ALTER TABLE email_outbox ADD COLUMN otp_ciphertext VARCHAR(255);
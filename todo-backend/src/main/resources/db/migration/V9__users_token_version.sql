@@ -0,0 +1,4 @@
+-- Tokens carry the user's token version in their "ver" claim and only authenticate while it
+-- matches this column; bumping it revokes every token issued before. Existing tokens were all
+-- issued with version 1, so they stay valid.
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 1;
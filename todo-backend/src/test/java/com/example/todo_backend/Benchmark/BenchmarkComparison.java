@@ -0,0 +1,97 @@
+package com.example.todo_backend.Benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH result files written with -rf json and exits with 1 when any benchmark got
+// worse than the threshold percentage. A change only counts when it is also larger
+// than the two runs' error margins together, so a noisy benchmark does not fail on its own.
+// The benchmarks profile runs it after the suite when -Dbenchmark.baseline is set:
+//   mvn -Pbenchmarks verify -Dbenchmark.baseline=../jmh-baseline.json -Dbenchmark.threshold=10
+// Usage: BenchmarkComparison <current.json> <threshold-percent> [baseline.json]
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        // An empty -Dbenchmark.baseline leaves the argument out altogether
+        if (args.length < 3 || args[2].isBlank()) {
+            System.out.println("No baseline given, skipping the benchmark comparison");
+            return;
+        }
+        Path baseline = Path.of(args[2]);
+        if (!Files.exists(baseline)) {
+            System.out.println("Baseline " + baseline + " does not exist yet, skipping the benchmark comparison");
+            return;
+        }
+        double threshold = Double.parseDouble(args[1]) / 100;
+        int regressions = compare(read(baseline), read(Path.of(args[0])), threshold);
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    static int compare(Map<String, Result> baseline, Map<String, Result> current, double threshold) {
+        int regressions = 0;
+        System.out.printf("%-90s %16s %16s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit()) || before.score() == 0) {
+                System.out.printf("%-90s %16s %16s%n", entry.getKey(), "-", now.format());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            // Throughput is better when higher; every other mode measures time per operation
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean significant = Math.abs(now.score() - before.score()) > before.error() + now.error();
+            String verdict = "";
+            if (significant && worse > threshold) {
+                verdict = "  REGRESSION";
+                regressions++;
+            } else if (significant && worse < -threshold) {
+                verdict = "  improved";
+            }
+            System.out.printf("%-90s %16s %16s %+7.1f%%%s%n", entry.getKey(), before.format(), now.format(),
+                    change * 100, verdict);
+        }
+        return regressions;
+    }
+
+    // Keyed by benchmark name plus its @Param values, e.g. ...TaskSerializationBenchmark.serializeResponses:tasks=50
+    static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonNode> param : run.path("params").properties()) {
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+
+            JsonNode metric = run.path("primaryMetric");
+            // JMH writes "NaN" as the error of a single measurement iteration
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    record Result(String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return String.format("%.3f %s", score, unit);
+        }
+    }
+}
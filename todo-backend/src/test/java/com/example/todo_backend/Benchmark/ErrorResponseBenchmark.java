@@ -0,0 +1,76 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.DTOs.TaskRequestDTO;
+import com.example.todo_backend.Exception.GlobalExceptionHandler;
+import com.example.todo_backend.Exception.UserException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+// Error responses from GlobalExceptionHandler: the business exception as services throw it
+// (stack trace included), the handler's body on its own, and a validation failure, each
+// written to JSON as the client receives it.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.ErrorResponseBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    private static final String MESSAGE = "Task not found or you don't have permission to view it.";
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private UserException thrown;
+    private MethodArgumentNotValidException invalid;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        thrown = new UserException(MESSAGE);
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(request, "taskRequestDTO");
+        errors.rejectValue("title", "NotBlank", "Title is required");
+        MethodParameter parameter = new MethodParameter(
+                ErrorResponseBenchmark.class.getDeclaredMethod("validated", TaskRequestDTO.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, errors);
+    }
+
+    @Benchmark
+    public byte[] userException() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleUserException(new UserException(MESSAGE)).getBody());
+    }
+
+    @Benchmark
+    public byte[] userExceptionHandlerOnly() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleUserException(thrown).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationException() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleValidationException(invalid).getBody());
+    }
+
+    @SuppressWarnings("unused")
+    private static void validated(TaskRequestDTO request) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ErrorResponseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.DTOs.AccountDeletionDTO;
+import com.example.todo_backend.DTOs.UserRegistrationDTO;
+import com.example.todo_backend.DTOs.UserResponseDTO;
+import com.example.todo_backend.DTOs.UserSnapshot;
+import com.example.todo_backend.Entity.User;
+import com.example.todo_backend.Security.JwtAuthenticationFilter;
+import com.example.todo_backend.Security.JwtUtil;
+import com.example.todo_backend.Security.VerifiedTokenCache;
+import com.example.todo_backend.Service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Filter throughput for an authenticated request with and without the verified-token cache.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.JwtFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = newJwtUtil();
+
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenCache", cache);
+        ReflectionTestUtils.setField(filter, "userService",
+                new StaticListableBeanFactory(Map.of("userService", new CachedUserService())).getBeanProvider(UserService.class));
+
+        authorization = "Bearer " + jwtUtil.generateToken(42L, "bench@example.com", 1);
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/all");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // Stands in for the user cache hit every authenticated request makes for the token version check
+    private static class CachedUserService implements UserService {
+        private final Optional<UserSnapshot> user = Optional.of(UserSnapshot.builder()
+                .id(42L).email("bench@example.com").enabled(true).tokenVersion(1).build());
+
+        @Override
+        public Optional<UserSnapshot> findSnapshotById(Long id) {
+            return user;
+        }
+
+        @Override
+        public Optional<UserSnapshot> findSnapshotByEmail(String email) {
+            return user;
+        }
+
+        @Override
+        public UserResponseDTO registerUser(UserRegistrationDTO userRegistrationDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<User> findByEmail(String email) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UserResponseDTO updateUser(String email, User user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AccountDeletionDTO deleteUserByEmail(String email) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
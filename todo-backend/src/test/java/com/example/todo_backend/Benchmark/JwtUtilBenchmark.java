@@ -0,0 +1,58 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.Security.JwtUtil;
+import com.example.todo_backend.Security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// JwtUtil on its own: signing a login token and the ways a token is read back. Each read is a
+// full HS512 check plus claim parsing, which is what the verified-token cache saves per request.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.JwtUtilBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtFilterBenchmark.newJwtUtil();
+        token = jwtUtil.generateToken(42L, "bench@example.com", 1);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(42L, "bench@example.com", 1);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtUtil.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.todo_backend.Benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Closed-loop HTTP load against a running server (see LoadTestServer): `concurrency` clients
+// each send the next request as soon as the previous one returns, 80% keyset page reads and
+// 20% task creates. Prints throughput and latency percentiles; run it once against a platform
+// thread server and once against a virtual thread server with the same arguments.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.LoadDriver
+//   -Dexec.args="<user id> [concurrency=200] [seconds=30] [baseUrl=http://localhost:9090]"
+public class LoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        long userId = Long.parseLong(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String baseUrl = args.length > 3 ? args[3] : "http://localhost:9090";
+
+        String authorization = "Bearer " + JwtFilterBenchmark.newJwtUtil().generateToken(userId, "load@example.com", 1);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI pageUri = URI.create(baseUrl + "/api/tasks?size=20");
+        URI createUri = URI.create(baseUrl + "/api/tasks/create");
+
+        // Short warm-up so JIT and pool start-up do not land in the measurement
+        run(client, authorization, pageUri, createUri, Math.min(concurrency, 20), TimeUnit.SECONDS.toNanos(5));
+        Result result = run(client, authorization, pageUri, createUri, concurrency, TimeUnit.SECONDS.toNanos(seconds));
+
+        long[] latencies = result.latencies;
+        Arrays.sort(latencies);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                latencies.length, result.errors, latencies.length / (double) seconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static Result run(HttpClient client, String authorization, URI pageUri, URI createUri,
+                              int concurrency, long durationNanos) throws Exception {
+        long deadline = System.nanoTime() + durationNanos;
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = ThreadLocalRandom.current().nextInt(10) < 8
+                            ? HttpRequest.newBuilder(pageUri).header("Authorization", authorization).GET().build()
+                            : HttpRequest.newBuilder(createUri).header("Authorization", authorization)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"load\",\"description\":\"generated\"}"))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors++;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return new Result(Arrays.copyOf(latencies, count), errors);
+            }));
+        }
+        long[] all = new long[0];
+        long errors = 0;
+        for (Future<Result> future : futures) {
+            Result part = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + part.latencies.length);
+            System.arraycopy(part.latencies, 0, all, offset, part.latencies.length);
+            errors += part.errors;
+        }
+        clients.shutdown();
+        return new Result(all, errors);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
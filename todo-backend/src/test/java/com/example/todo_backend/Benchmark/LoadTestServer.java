@@ -0,0 +1,49 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.TodoBackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Starts the application against an embedded PostgreSQL (no Docker) for LoadDriver, with
+// platform or virtual request threads, and seeds one user to run the load as.
+// Run from todo-backend (virtual threads need the java21 profile and a Java 21 JVM):
+//   mvn -Pjava21 test-compile exec:java -Dexec.classpathScope=test
+//     -Dexec.mainClass=com.example.todo_backend.Benchmark.LoadTestServer -Dexec.args="virtual"
+// Pass "platform" instead of "virtual" for the baseline. Embedded PostgreSQL refuses to run as root
+public class LoadTestServer {
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = args.length > 0 && "virtual".equals(args[0]);
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        ConfigurableApplicationContext context = SpringApplication.run(TodoBackendApplication.class,
+                "--spring.profiles.active=loadtest",
+                "--server.port=" + port,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--jwt.secret=" + JwtFilterBenchmark.SECRET,
+                "--jwt.expiration-ms=3600000",
+                "--app.cors.allowedOrigin=http://localhost",
+                "--app.mail.outbox.enabled=false");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            context.close();
+            try {
+                postgres.close();
+            } catch (Exception ignored) {
+                // shutting down anyway
+            }
+        }));
+
+        Long userId = context.getBean(JdbcTemplate.class).queryForObject(
+                "INSERT INTO users (name, email, number, enabled, password, created_at) " +
+                        "VALUES ('Load Test', 'load@example.com', '9000000000', true, 'x', now()) RETURNING id",
+                Long.class);
+        System.out.printf("Ready on port %d with %s threads; run LoadDriver with user id %d%n",
+                port, virtual ? "virtual" : "platform", userId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.Entity.EmailOutbox;
+import com.example.todo_backend.Service.EmailService;
+import com.example.todo_backend.Service.OtpEmailRenderer;
+import com.example.todo_backend.Util.PayloadCipher;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+// Thymeleaf rendering of the OTP email versus the precompiled OtpEmailRenderer, and the whole
+// MIME message EmailService builds for the outbox dispatcher (nothing is sent).
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.OtpEmailRenderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OtpEmailRenderBenchmark {
+
+    private static final String NAME = "Jane O'Neil";
+    private static final String OTP = "482913";
+
+    private TemplateEngine templateEngine;
+    private OtpEmailRenderer renderer;
+    private EmailService emailService;
+    private EmailOutbox outbox;
+
+    @Setup
+    public void setUp() {
+        templateEngine = newTemplateEngine();
+        renderer = new OtpEmailRenderer();
+        // OtpEmailRendererTest pins the precompiled output to Thymeleaf's
+        renderer.init();
+
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "otpEmailRenderer", renderer);
+        ReflectionTestUtils.setField(emailService, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(emailService, "mailSender", new JavaMailSenderImpl());
+        ReflectionTestUtils.setField(emailService, "encryptionSecret", "benchmark-secret");
+        emailService.init();
+        outbox = EmailOutbox.builder().recipient("jane@example.com").recipientName(NAME)
+                .otpCiphertext(new PayloadCipher("benchmark-secret").encrypt(OTP)).build();
+    }
+
+    @Benchmark
+    public String thymeleaf() {
+        Context context = new Context();
+        context.setVariable("name", NAME);
+        context.setVariable("otp", OTP);
+        return templateEngine.process("otp-email-template", context);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return renderer.render(NAME, OTP);
+    }
+
+    @Benchmark
+    public MimeMessage emailServiceMessage() {
+        return emailService.buildOtpMessage(outbox);
+    }
+
+    static TemplateEngine newTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OtpEmailRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.Service.InMemoryOtpStore;
+import com.example.todo_backend.Service.OtpService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Drawing an OTP from the shared SecureRandom, and issuing one (draw, HMAC, store) into the
+// in-memory store. Runs with 4 threads since registrations and logins draw codes concurrently.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.OtpServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class OtpServiceBenchmark {
+
+    private OtpService otpService;
+
+    @Setup
+    public void setUp() {
+        otpService = new OtpService();
+        ReflectionTestUtils.setField(otpService, "otpStore", new InMemoryOtpStore(512));
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 5);
+        ReflectionTestUtils.setField(otpService, "hmacSecret", "benchmark-otp-secret");
+        otpService.init();
+    }
+
+    @Benchmark
+    public String generateOtp() {
+        return otpService.generateOtp();
+    }
+
+    @Benchmark
+    public String issueOtp() {
+        return otpService.issueOtp(OtpService.Purpose.LOGIN, "bench@example.com");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OtpServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.Security.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one TokenBucketLimiter decision with 32 threads contending. keys=1 puts every thread
+// on the same bucket (worst-case CAS contention); keys=10000 spreads them like real client IPs.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.RateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keys;
+
+    private TokenBucketLimiter limiter;
+    private String[] keyPool;
+
+    @Setup
+    public void setUp() {
+        // High enough that most calls are admitted and actually CAS the bucket
+        limiter = new TokenBucketLimiter(1_000_000, 60_000_000, 100_000, 64);
+        keyPool = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyPool[i] = "203.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String key = keyPool[ThreadLocalRandom.current().nextInt(keyPool.length)];
+        return limiter.tryAcquire(key, System.nanoTime());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
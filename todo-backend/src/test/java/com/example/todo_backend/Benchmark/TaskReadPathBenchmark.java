@@ -0,0 +1,122 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.DTOs.TaskSummaryDTO;
+import com.example.todo_backend.Entity.Task;
+import com.example.todo_backend.Entity.User;
+import com.example.todo_backend.Repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading all tasks of a 10k-task user as managed entities mapped to DTOs versus the constructor
+// projections in TaskRepository. Runs on in-memory H2 so it measures Hibernate's side only;
+// compare gc.alloc.rate.norm (bytes per operation) from the GC profiler.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.TaskReadPathBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadPathBenchmark {
+
+    private static final int TASKS = 10_000;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private TaskRepository taskRepository;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Task.class)
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:tasks;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+        taskRepository = new JpaRepositoryFactory(entityManager).getRepository(TaskRepository.class);
+
+        entityManager.getTransaction().begin();
+        User user = User.builder()
+                .name("Bench User")
+                .email("bench@example.com")
+                .number("9000000000")
+                .password("x")
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+        String description = "Description text that is typical of a task note. ".repeat(4);
+        for (int i = 0; i < TASKS; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Task " + i)
+                    .description(description)
+                    .completed(i % 3 == 0)
+                    .user(user)
+                    .changeVersion(i + 1)
+                    .build());
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        userId = user.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> entities() {
+        List<Task> tasks = taskRepository.findByUserIdAndDeletedFalse(userId);
+        List<TaskResponseDTO> responses = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            responses.add(TaskResponseDTO.builder()
+                    .id(task.getId())
+                    .title(task.getTitle())
+                    .description(task.getDescription())
+                    .completed(task.isCompleted())
+                    .createdAt(task.getCreatedAt())
+                    .updatedAt(task.getUpdatedAt())
+                    .build());
+        }
+        // A request-scoped persistence context would be discarded at the end of the request too
+        entityManager.clear();
+        return responses;
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> projection() {
+        return taskRepository.findResponsesByUserId(userId);
+    }
+
+    @Benchmark
+    public List<TaskSummaryDTO> summaryProjection() {
+        return taskRepository.findSummariesByUserId(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskReadPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.example.todo_backend.Entity.Task;
+import com.example.todo_backend.Service.Impl.TaskServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The response side of the task endpoints: TaskServiceImpl.mapToResponseDTO over a list of
+// entities, and Jackson writing the DTO list the way /api/tasks/all does. The mapper comes from
+// the same builder Boot uses, so dates are ISO strings as in production.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.TaskSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    // mapToResponseDTO is private; a constant handle is inlined like a direct call
+    private static final MethodHandle MAP_TO_RESPONSE_DTO = mapToResponseDto();
+
+    @Param({"1", "50", "500"})
+    public int tasks;
+
+    private TaskServiceImpl taskService;
+    private ObjectMapper objectMapper;
+    private List<Task> entities;
+    private List<TaskResponseDTO> responses;
+
+    @Setup
+    public void setUp() throws Throwable {
+        taskService = new TaskServiceImpl();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            entities.add(Task.builder()
+                    .id((long) i + 1)
+                    .title("Task " + i)
+                    .description(i % 2 == 0 ? "Description of task " + i : null)
+                    .completed(i % 3 == 0)
+                    .createdAt(now.minusMinutes(i))
+                    .updatedAt(now)
+                    .version(i % 4)
+                    .build());
+        }
+        responses = mapToResponseDTOs();
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> mapToResponseDTOs() throws Throwable {
+        List<TaskResponseDTO> mapped = new ArrayList<>(entities.size());
+        for (Task task : entities) {
+            mapped.add((TaskResponseDTO) MAP_TO_RESPONSE_DTO.invokeExact(taskService, task));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Throwable {
+        return objectMapper.writeValueAsBytes(mapToResponseDTOs());
+    }
+
+    private static MethodHandle mapToResponseDto() {
+        try {
+            return MethodHandles.privateLookupIn(TaskServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(TaskServiceImpl.class, "mapToResponseDTO",
+                            MethodType.methodType(TaskResponseDTO.class, Task.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.todo_backend.Benchmark;
+
+import com.example.todo_backend.Config.WireFormatConfig;
+import com.example.todo_backend.DTOs.TaskResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// /api/tasks/all in each negotiated format: encoding on the server, decoding on the client (into
+// a tree, as a generic client would) and encoding plus gzip as sent above the compression
+// threshold. Bytes on the wire are printed once per trial, plain and gzipped.
+// Run from todo-backend with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.todo_backend.Benchmark.WireFormatBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1000", "10000"})
+    public int tasks;
+
+    private ObjectMapper objectMapper;
+    private List<TaskResponseDTO> responses;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The same mappers the converters use: Boot's builder, plus the binary settings
+        objectMapper = switch (format) {
+            case "cbor" -> WireFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+            case "smile" -> WireFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new SmileFactory());
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        LocalDateTime now = LocalDateTime.now();
+        responses = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            responses.add(TaskResponseDTO.builder()
+                    .id((long) i + 1)
+                    .title("Task " + i)
+                    .description(i % 2 == 0 ? "Description of task " + i : null)
+                    .completed(i % 3 == 0)
+                    .createdAt(now.minusMinutes(i))
+                    .updatedAt(now)
+                    .version(i % 4)
+                    .build());
+        }
+        encoded = serialize();
+        System.out.printf("%n%s, %d tasks: %d bytes, %d gzipped%n", format, tasks, encoded.length, serializeGzipped().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public JsonNode deserialize() throws IOException {
+        return objectMapper.readTree(encoded);
+    }
+
+    @Benchmark
+    public byte[] serializeGzipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoded.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, responses);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.todo_backend.Controller;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+// HTTP contract of the basic task endpoints. The same class exists in todo-backend (servlet stack)
+// and todo-backend-reactive (WebFlux + R2DBC); keep both copies identical apart from the package.
+// Subclasses start the application on a random port against a migrated database
+abstract class TaskApiContractTest {
+
+    static final String JWT_SECRET = "functional-test-secret-functional-test-secret-functional-test-secret";
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private String alice;
+    private String bob;
+
+    protected abstract WebTestClient client();
+
+    // Inserts an enabled user and returns its id
+    protected abstract long createUser(String email, String number);
+
+    @BeforeEach
+    void createUsers() {
+        alice = bearerForNewUser();
+        bob = bearerForNewUser();
+    }
+
+    @Test
+    void createReturnsTheNewTask() {
+        client().post().uri("/api/tasks/create")
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Write report", "description", "Quarterly numbers"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.title").isEqualTo("Write report")
+                .jsonPath("$.description").isEqualTo("Quarterly numbers")
+                .jsonPath("$.completed").isEqualTo(false)
+                .jsonPath("$.createdAt").exists();
+    }
+
+    @Test
+    void createRequiresTitle() {
+        client().post().uri("/api/tasks/create")
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", " ", "description", "No title"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Title is required");
+    }
+
+    @Test
+    void listReturnsOnlyTheCallersTasks() {
+        createTask(alice, "First");
+        createTask(alice, "Second");
+        createTask(bob, "Not yours");
+
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[*].title").value(containsInAnyOrder("First", "Second"));
+    }
+
+    @Test
+    void getReturnsOwnTaskAndHidesOtherUsersTasks() {
+        long id = createTask(alice, "Private");
+
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id)
+                .jsonPath("$.title").isEqualTo("Private");
+
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bob)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Task not found or you don't have permission to view it.");
+    }
+
+    @Test
+    void updateReplacesFieldsAndKeepsCompletionWhenOmitted() {
+        long id = createTask(alice, "Draft");
+
+        client().put().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Final", "description", "Reviewed", "completed", true))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id)
+                .jsonPath("$.title").isEqualTo("Final")
+                .jsonPath("$.description").isEqualTo("Reviewed")
+                .jsonPath("$.completed").isEqualTo(true)
+                .jsonPath("$.updatedAt").exists();
+
+        client().put().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Final v2"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Final v2")
+                .jsonPath("$.description").doesNotExist()
+                .jsonPath("$.completed").isEqualTo(true);
+    }
+
+    @Test
+    void updateOfOtherUsersTaskIsRejected() {
+        long id = createTask(alice, "Mine");
+
+        client().put().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bob)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Taken over"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Task not found or you don't have permission to update it.");
+
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Mine");
+    }
+
+    @Test
+    void deleteRemovesTheTask() {
+        long id = createTask(alice, "Short-lived");
+        createTask(alice, "Survivor");
+
+        client().delete().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bob)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client().delete().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Task deleted successfully.");
+
+        client().get().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Survivor");
+
+        client().delete().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, alice)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Task not found or you don't have permission to delete it.");
+    }
+
+    @Test
+    void requestsWithoutValidTokenAreRejected() {
+        client().get().uri("/api/tasks/all")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client().post().uri("/api/tasks/create")
+                .header(HttpHeaders.AUTHORIZATION, token(null, "nobody@example.com", JWT_SECRET + "-other"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Forged"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void tokensWithoutUserIdClaimAreResolvedByEmail() {
+        int n = USERS.incrementAndGet();
+        String email = "legacy" + n + "@example.com";
+        createUser(email, String.format("7%09d", n));
+        String legacy = token(null, email, JWT_SECRET);
+
+        createTask(legacy, "Old client");
+
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, legacy)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo("Old client");
+    }
+
+    protected long createTask(String authorization, String title) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("title", title);
+        Map<?, ?> created = client().post().uri("/api/tasks/create")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        return ((Number) created.get("id")).longValue();
+    }
+
+    protected String bearerForNewUser() {
+        int n = USERS.incrementAndGet();
+        String email = "user" + n + "@example.com";
+        long id = createUser(email, String.format("8%09d", n));
+        return token(id, email, JWT_SECRET);
+    }
+
+    // Same claims as todo-backend's JwtUtil; a null id gives a token from before the "uid" claim
+    private static String token(Long userId, String email, String secret) {
+        var builder = Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000));
+        if (userId != null) {
+            builder.claim("uid", userId).claim("ver", 1);
+        }
+        return "Bearer " + builder.signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS512).compact();
+    }
+}
@@ -0,0 +1,938 @@
+package com.example.todo_backend.Controller;
+
+import com.example.todo_backend.DTOs.UserSnapshot;
+import com.example.todo_backend.Security.JwtUtil;
+import com.example.todo_backend.Service.OtpService;
+import com.example.todo_backend.Service.TaskArchiver;
+import com.example.todo_backend.Service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.Disposable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+
+// Runs the shared task API contract against the servlet application; Flyway migrates the
+// container on start-up. Metrics export (Prometheus) is switched on as in production.
+// Needs Docker; skipped when it is not available
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=" + TaskApiContractTest.JWT_SECRET,
+        "jwt.expiration-ms=3600000",
+        "app.cors.allowedOrigin=http://localhost",
+        "app.mail.outbox.enabled=false",
+        "app.users.deletion.chunk-size=500",
+        "app.users.deletion.async-threshold=1000",
+        "app.tasks.batch.max-operations=20",
+        "management.server.port=0"
+})
+class TaskControllerFunctionalTest extends TaskApiContractTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OtpService otpService;
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Override
+    protected WebTestClient client() {
+        return webTestClient;
+    }
+
+    @Override
+    protected long createUser(String email, String number) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email, number, enabled, password, created_at) " +
+                "VALUES ('Test User', ?, ?, true, 'x', now()) RETURNING id", Long.class, email, number);
+    }
+
+    // ETags and conditional requests are specific to this application
+
+    @Test
+    void unchangedTaskAndListRevalidateWith304() {
+        String user = bearerForNewUser();
+        long id = createTask(user, "Cached");
+
+        for (String uri : new String[]{"/api/tasks/" + id, "/api/tasks/all"}) {
+            String eTag = getETag(user, uri);
+            client().get().uri(uri)
+                    .header(HttpHeaders.AUTHORIZATION, user)
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                    .exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                    .expectBody().isEmpty();
+        }
+    }
+
+    @Test
+    void listETagChangesWithEveryWrite() {
+        String user = bearerForNewUser();
+        String before = getETag(user, "/api/tasks/all");
+        createTask(user, "New");
+        String after = getETag(user, "/api/tasks/all");
+
+        assertThat(after).isNotEqualTo(before);
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_NONE_MATCH, before)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo("New");
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWith412() {
+        String user = bearerForNewUser();
+        long id = createTask(user, "Contended");
+        String original = getETag(user, "/api/tasks/" + id);
+
+        String updated = client().put().uri("/api/tasks/" + id)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_MATCH, original)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "First writer"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Void.class)
+                .getResponseHeaders().getETag();
+        assertThat(updated).isNotEqualTo(original);
+
+        client().put().uri("/api/tasks/" + id)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_MATCH, original)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Second writer"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        client().delete().uri("/api/tasks/" + id)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_MATCH, original)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client().get().uri("/api/tasks/" + id)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("First writer");
+        client().delete().uri("/api/tasks/" + id)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_MATCH, updated)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void streamPushesChangesOnceCommitted() throws InterruptedException {
+        String user = bearerForNewUser();
+        BlockingQueue<ServerSentEvent<String>> events = new LinkedBlockingQueue<>();
+        Disposable stream = openStream(user, null, events);
+        try {
+            assertThat(nextEvent(events).event()).isEqualTo("ready");
+            long id = createTask(user, "Pushed");
+
+            ServerSentEvent<String> created = nextEvent(events);
+            assertThat(created.event()).isEqualTo("created");
+            assertThat(created.id()).isEqualTo("1");
+            assertThat(created.data()).contains("\"taskId\":" + id).contains("Pushed");
+
+            client().delete().uri("/api/tasks/" + id)
+                    .header(HttpHeaders.AUTHORIZATION, user)
+                    .exchange()
+                    .expectStatus().isOk();
+            ServerSentEvent<String> deleted = nextEvent(events);
+            assertThat(deleted.event()).isEqualTo("deleted");
+            assertThat(deleted.id()).isEqualTo("2");
+        } finally {
+            stream.dispose();
+        }
+    }
+
+    @Test
+    void streamResumesAfterLastEventId() throws InterruptedException {
+        String user = bearerForNewUser();
+        createTask(user, "Seen before");
+        long missed = createTask(user, "Missed");
+
+        BlockingQueue<ServerSentEvent<String>> events = new LinkedBlockingQueue<>();
+        Disposable stream = openStream(user, "1", events);
+        try {
+            ServerSentEvent<String> ready = nextEvent(events);
+            assertThat(ready.event()).isEqualTo("ready");
+            assertThat(ready.id()).isEqualTo("1");
+            ServerSentEvent<String> replayed = nextEvent(events);
+            assertThat(replayed.event()).isEqualTo("created");
+            assertThat(replayed.id()).isEqualTo("2");
+            assertThat(replayed.data()).contains("\"taskId\":" + missed);
+        } finally {
+            stream.dispose();
+        }
+    }
+
+    @Test
+    void prometheusScrapeHasEndpointHistogramsAndStatementCounts() throws InterruptedException {
+        String user = bearerForNewUser();
+        createTask(user, "Measured");
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk();
+
+        // Actuator is only served on the management port, not next to the API
+        client().get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().is4xxClientError();
+
+        // Histograms make the full scrape larger than the client's default 256 KB buffer
+        WebTestClient scraper = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + managementPort)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        // Meters are recorded once the request's filters return, which can be after the response arrives
+        String scrape = "";
+        for (int i = 0; i < 50 && !scrape.contains("http_server_requests_db_statements_count{"); i++) {
+            Thread.sleep(100);
+            scrape = scraper.get().uri("/actuator/prometheus")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .returnResult()
+                    .getResponseBody();
+        }
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/tasks/all\"")
+                .containsPattern("http_server_requests_db_statements_count\\{[^}]*uri=\"/api/tasks/all\"")
+                .contains("jwt_verify_seconds_count{")
+                .contains("hikaricp_connections_pending{");
+    }
+
+    @Test
+    void accountDeletionRunsTheSameStatementsWhateverTheTaskCount() throws InterruptedException {
+        long small = deleteAccountWithTasks(10);
+        long large = deleteAccountWithTasks(400);
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void largeAccountIsDeletedInTheBackground() throws InterruptedException {
+        String email = "heavy" + System.nanoTime() + "@example.com";
+        long userId = createUser(email, String.format("6%09d", System.nanoTime() % 1_000_000_000));
+        insertTasks(userId, 1200);
+        String owner = "Bearer " + jwtUtil.generateToken(userId, email, 1);
+        client().get().uri("/api/tasks?size=1")
+                .header(HttpHeaders.AUTHORIZATION, owner)
+                .exchange()
+                .expectStatus().isOk();
+
+        String location = client().delete().uri("/api/users/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, bearerForNewUser())
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("RUNNING")
+                .jsonPath("$.tasksTotal").isEqualTo(1200)
+                .returnResult()
+                .getResponseHeaders().getLocation().toString();
+        // The user's tokens stop working as soon as the deletion is accepted, not when it completes
+        client().get().uri("/api/tasks?size=1")
+                .header(HttpHeaders.AUTHORIZATION, owner)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        String state = "RUNNING";
+        for (int i = 0; i < 100 && state.equals("RUNNING"); i++) {
+            Thread.sleep(100);
+            Map<?, ?> job = client().get().uri(location)
+                    .header(HttpHeaders.AUTHORIZATION, bearerForNewUser())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(Map.class)
+                    .returnResult()
+                    .getResponseBody();
+            state = (String) job.get("state");
+            if (state.equals("COMPLETED")) {
+                assertThat(((Number) job.get("tasksDeleted")).longValue()).isEqualTo(1200);
+            }
+        }
+        assertThat(state).isEqualTo("COMPLETED");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Long.class, userId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE user_id = ?", Long.class, userId)).isZero();
+    }
+
+    @Test
+    void registrationRejectsTakenEmailAndNumber() {
+        // Written behind the application's back, so only the unique constraints know about it
+        String number = String.format("4%09d", System.nanoTime() % 1_000_000_000);
+        String email = "taken" + System.nanoTime() + "@example.com";
+        createUser(email, number);
+
+        register(email, String.format("3%09d", System.nanoTime() % 1_000_000_000))
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Email is already in use.");
+        register("other" + System.nanoTime() + "@example.com", number)
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Number is already in use.");
+
+        String fresh = "fresh" + System.nanoTime() + "@example.com";
+        String freshNumber = String.format("2%09d", System.nanoTime() % 1_000_000_000);
+        register(fresh, freshNumber).expectStatus().isCreated();
+        register(fresh, String.format("1%09d", System.nanoTime() % 1_000_000_000))
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Email is already in use.");
+    }
+
+    @Test
+    void outdatedPasswordHashesAreUpgradedOnLogin() {
+        // Unprefixed hashes from before the encoder was delegating, and bcrypt below the configured strength
+        String unprefixed = new BCryptPasswordEncoder().encode("secret123");
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret123");
+        String current = "{bcrypt}" + new BCryptPasswordEncoder(10).encode("secret123");
+
+        for (String stored : new String[]{unprefixed, weak, current}) {
+            String email = "legacy" + System.nanoTime() + "@example.com";
+            long userId = createUser(email, String.format("6%09d", System.nanoTime() % 1_000_000_000));
+            jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", stored, userId);
+
+            loginOtp(email, "secret123").expectStatus().isOk();
+
+            String upgraded = jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, userId);
+            if (stored.equals(current)) {
+                assertThat(upgraded).isEqualTo(current);
+            } else {
+                assertThat(upgraded).startsWith("{bcrypt}$2a$10$").isNotEqualTo(stored);
+            }
+            // The new hash still verifies, and the old password is the only one that does
+            loginOtp(email, "secret123").expectStatus().isOk();
+            loginOtp(email, "wrong-password").expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void emailChangeEvictsTheSnapshotsCachedUnderTheOldEmail() {
+        String email = "moving" + System.nanoTime() + "@example.com";
+        String number = String.format("9%09d", System.nanoTime() % 1_000_000_000);
+        long userId = createUser(email, number);
+        String byId = "Bearer " + jwtUtil.generateToken(userId, email, 1);
+        // Without the uid claim the filter resolves the user through the email cache
+        String byEmail = "Bearer " + jwtUtil.generateToken(null, email, 1);
+        for (String token : new String[]{byId, byEmail}) {
+            client().get().uri("/api/tasks/all").header(HttpHeaders.AUTHORIZATION, token).exchange().expectStatus().isOk();
+        }
+
+        String newEmail = "moved" + System.nanoTime() + "@example.com";
+        client().put().uri("/api/users/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, byId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Test User", "email", newEmail, "number", number))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(userService.findSnapshotByEmail(email)).isEmpty();
+        assertThat(userService.findSnapshotById(userId)).get().extracting(UserSnapshot::getEmail).isEqualTo(newEmail);
+        client().get().uri("/api/tasks/all").header(HttpHeaders.AUTHORIZATION, byEmail).exchange().expectStatus().isForbidden();
+        client().get().uri("/api/tasks/all").header(HttpHeaders.AUTHORIZATION, byId).exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void accountDeletionRevokesTokensAlreadyCached() {
+        String email = "revoked" + System.nanoTime() + "@example.com";
+        long userId = createUser(email, String.format("9%09d", System.nanoTime() % 1_000_000_000));
+        String user = "Bearer " + jwtUtil.generateToken(userId, email, 1);
+        client().get().uri("/api/tasks/all").header(HttpHeaders.AUTHORIZATION, user).exchange().expectStatus().isOk();
+
+        client().delete().uri("/api/users/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(userService.findSnapshotById(userId)).isEmpty();
+        assertThat(userService.findSnapshotByEmail(email)).isEmpty();
+        client().get().uri("/api/tasks/all").header(HttpHeaders.AUTHORIZATION, user).exchange().expectStatus().isForbidden();
+    }
+
+    @Test
+    void accountVerificationRefreshesTheCachedSnapshot() {
+        String email = "verifying" + System.nanoTime() + "@example.com";
+        register(email, String.format("9%09d", System.nanoTime() % 1_000_000_000)).expectStatus().isCreated();
+        assertThat(userService.findSnapshotByEmail(email)).get().extracting(UserSnapshot::isEnabled).isEqualTo(false);
+
+        // Replaces the code that went to the outbox with one the test knows
+        String otp = otpService.issueOtp(OtpService.Purpose.ACCOUNT_VERIFICATION, email);
+        client().post().uri("/api/users/verify-otp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "otp", otp))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(userService.findSnapshotByEmail(email)).get().extracting(UserSnapshot::isEnabled).isEqualTo(true);
+    }
+
+    @Test
+    void binaryFormatsAreNegotiatedPerRequest() throws Exception {
+        String user = bearerForNewUser();
+        createTask(user, "Binary");
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+        byte[] list = client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().value(HttpHeaders.VARY, vary ->
+                        assertThat(vary.toLowerCase().split("\\s*,\\s*")).contains("accept"))
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        JsonNode task = cbor.readTree(list).get(0);
+        assertThat(task.get("title").asText()).isEqualTo("Binary");
+        assertThat(task.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(task.has("description")).isFalse();
+
+        MediaType smileType = MediaType.parseMediaType("application/x-jackson-smile");
+        byte[] created = client().post().uri("/api/tasks/create")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(smileType)
+                .accept(smileType)
+                .bodyValue(smile.writeValueAsBytes(Map.of("title", "Smiled", "description", "compact")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(smileType)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        assertThat(smile.readTree(created).get("description").asText()).isEqualTo("compact");
+
+        // Without a preference it is still JSON with ISO timestamps
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$[1].title").isEqualTo("Smiled")
+                .jsonPath("$[1].createdAt").value(instanceOf(String.class));
+    }
+
+    @Test
+    void largeResponsesAreGzipped() throws Exception {
+        String user = bearerForNewUser();
+        long id = createTask(user, "First");
+        insertTasks(jdbcTemplate.queryForObject("SELECT user_id FROM tasks WHERE id = ?", Long.class, id), 200);
+
+        assertThat(contentEncoding(user, "/api/tasks/all")).contains("gzip");
+        // A single task is under the threshold
+        assertThat(contentEncoding(user, "/api/tasks/" + id)).isEmpty();
+    }
+
+    // WebTestClient's connector decompresses and drops Content-Encoding, so this asks the server directly
+    private Optional<String> contentEncoding(String authorization, String uri) throws Exception {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + uri))
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.headers().firstValue(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    @Test
+    void completedTasksAreArchivedAndStillFoundById() {
+        String user = bearerForNewUser();
+        long open = createTask(user, "Open");
+        long done = createTask(user, "Done long ago");
+        jdbcTemplate.update("UPDATE tasks SET completed = true, updated_at = now() - interval '200 days' WHERE id = ?", done);
+        String before = client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        taskArchiver.archive();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tasks_archive WHERE id = ?", Long.class, done)).isOne();
+        // The default list has lost a task, so revalidating with the old ETag gets the new body
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .header(HttpHeaders.IF_NONE_MATCH, before)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(open);
+        client().get().uri("/api/tasks/all?includeArchived=true")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo(done);
+        client().get().uri("/api/tasks/{id}", done)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Done long ago")
+                .jsonPath("$.completed").isEqualTo(true);
+
+        // Reopening it brings it back to the hot table
+        client().put().uri("/api/tasks/{id}", done)
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Not done after all", "completed", false))
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tasks_archive WHERE id = ?", Long.class, done)).isZero();
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].title").isEqualTo("Not done after all");
+    }
+
+    @Test
+    void batchReportsAResultPerOperation() {
+        String user = bearerForNewUser();
+        long kept = createTask(user, "Rename me");
+        long removed = createTask(user, "Remove me");
+        long foreign = createTask(bearerForNewUser(), "Someone else's");
+
+        client().post().uri("/api/tasks/batch")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("operations", List.of(
+                        Map.of("op", "CREATE", "task", Map.of("title", "Added")),
+                        Map.of("op", "UPDATE", "id", kept, "task", Map.of("title", "Renamed")),
+                        Map.of("op", "DELETE", "id", removed),
+                        Map.of("op", "COMPLETE", "id", foreign),
+                        Map.of("op", "DELETE", "id", foreign),
+                        Map.of("op", "UPDATE", "task", Map.of("title", "No id")))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(6)
+                .jsonPath("$[0].status").isEqualTo("OK")
+                .jsonPath("$[0].task.title").isEqualTo("Added")
+                .jsonPath("$[1].status").isEqualTo("OK")
+                .jsonPath("$[1].task.title").isEqualTo("Renamed")
+                .jsonPath("$[2].status").isEqualTo("OK")
+                .jsonPath("$[2].id").isEqualTo(removed)
+                .jsonPath("$[3].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$[4].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$[5].status").isEqualTo("INVALID")
+                .jsonPath("$[5].error").isEqualTo("Task id is required.");
+
+        // The other user's task is untouched
+        assertThat(jdbcTemplate.queryForMap("SELECT completed, deleted FROM tasks WHERE id = ?", foreign))
+                .containsEntry("completed", false)
+                .containsEntry("deleted", false);
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].title").isEqualTo("Renamed")
+                .jsonPath("$[1].title").isEqualTo("Added");
+    }
+
+    @Test
+    void batchReservesOneConsecutiveBlockOfChangeVersions() {
+        String user = bearerForNewUser();
+        long first = createTask(user, "Version 1");
+        long second = createTask(user, "Version 2");
+        long third = createTask(user, "Version 3");
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM tasks WHERE id = ?", Long.class, first);
+
+        client().post().uri("/api/tasks/batch")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("operations", List.of(
+                        Map.of("op", "DELETE", "id", third),
+                        Map.of("op", "COMPLETE", "id", second),
+                        Map.of("op", "UPDATE", "id", first, "task", Map.of("title", "Edited")),
+                        Map.of("op", "CREATE", "task", Map.of("title", "Created")),
+                        Map.of("op", "DELETE", "id", Long.MAX_VALUE))))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Four changes after the three creates, numbered 4..7 in one reservation: creates, updates,
+        // completes, deletes. The missing task takes no version
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM task_sync_state WHERE user_id = ?", Long.class, userId))
+                .isEqualTo(7);
+        assertThat(jdbcTemplate.queryForList("SELECT change_version FROM tasks WHERE user_id = ? ORDER BY change_version",
+                Long.class, userId)).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(jdbcTemplate.queryForObject("SELECT change_version FROM tasks WHERE id = ?", Long.class, first)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT change_version FROM tasks WHERE id = ?", Long.class, second)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject("SELECT change_version FROM tasks WHERE id = ?", Long.class, third)).isEqualTo(7);
+    }
+
+    @Test
+    void batchOverTheSizeLimitIsRejected() {
+        String user = bearerForNewUser();
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            operations.add(Map.of("op", "CREATE", "task", Map.of("title", "Task " + i)));
+        }
+
+        client().post().uri("/api/tasks/batch")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("operations", operations))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("A batch can contain at most 20 operations.");
+        client().get().uri("/api/tasks/all")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    void changesSinceZeroReturnTheFullLiveSet() {
+        String user = bearerForNewUser();
+        long first = createTask(user, "First");
+        long second = createTask(user, "Second");
+        long gone = createTask(user, "Gone");
+        deleteTask(user, gone);
+
+        JsonNode full = changes(user, 0, null);
+        assertThat(full.get("version").asLong()).isEqualTo(4);
+        assertThat(full.get("upserts").findValuesAsText("title")).containsExactly("First", "Second");
+        assertThat(full.get("upserts").get(0).get("id").asLong()).isEqualTo(first);
+        assertThat(full.get("upserts").get(1).get("id").asLong()).isEqualTo(second);
+        assertThat(full.get("deletions")).isEmpty();
+        assertThat(full.get("hasMore").asBoolean()).isFalse();
+        assertThat(full.get("fullResyncRequired").asBoolean()).isFalse();
+    }
+
+    @Test
+    void changesReportDeletionsAsTombstones() {
+        String user = bearerForNewUser();
+        createTask(user, "Kept");
+        long removed = createTask(user, "Removed");
+        deleteTask(user, removed);
+
+        client().get().uri("/api/tasks/changes?since=1")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(3)
+                .jsonPath("$.upserts.length()").isEqualTo(0)
+                .jsonPath("$.deletions[0]").isEqualTo(removed)
+                .jsonPath("$.deletions.length()").isEqualTo(1);
+        // Nothing after the current version
+        client().get().uri("/api/tasks/changes?since=3")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(3)
+                .jsonPath("$.upserts.length()").isEqualTo(0)
+                .jsonPath("$.deletions.length()").isEqualTo(0);
+    }
+
+    @Test
+    void changesArePagedWithLimit() {
+        String user = bearerForNewUser();
+        for (int i = 1; i <= 5; i++) {
+            createTask(user, "Task " + i);
+        }
+
+        List<String> titles = new ArrayList<>();
+        long since = 1;
+        boolean hasMore = true;
+        int pages = 0;
+        while (hasMore) {
+            JsonNode page = changes(user, since, 2);
+            page.get("upserts").forEach(task -> titles.add(task.get("title").asText()));
+            since = page.get("version").asLong();
+            hasMore = page.get("hasMore").asBoolean();
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(titles).containsExactly("Task 2", "Task 3", "Task 4", "Task 5");
+        assertThat(since).isEqualTo(5);
+    }
+
+    @Test
+    void changesAskForAFullResyncWhenSinceIsOutOfRange() {
+        String user = bearerForNewUser();
+        long id = createTask(user, "Purged later");
+        createTask(user, "Still here");
+        deleteTask(user, id);
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM tasks WHERE id = ?", Long.class, id);
+
+        // Ahead of the server, e.g. a client restored from another account's backup
+        assertThat(changes(user, 4, null).get("fullResyncRequired").asBoolean()).isTrue();
+
+        // Behind a purged tombstone: the client can no longer learn about the deletion
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", id);
+        jdbcTemplate.update("UPDATE task_sync_state SET purged_version = 3 WHERE user_id = ?", userId);
+        JsonNode behind = changes(user, 1, null);
+        assertThat(behind.get("fullResyncRequired").asBoolean()).isTrue();
+        assertThat(behind.get("version").asLong()).isEqualTo(3);
+        assertThat(behind.get("upserts")).isEmpty();
+
+        assertThat(changes(user, 3, null).get("fullResyncRequired").asBoolean()).isFalse();
+    }
+
+    @Test
+    void cursorPagesVisitEveryTaskOnceWhenCreatedAtTies() {
+        String user = bearerForNewUser();
+        long first = createTask(user, "Before the tie");
+        createTask(user, "Also before");
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM tasks WHERE id = ?", Long.class, first);
+        // One statement, so all nine rows share now() and only the id orders them
+        insertTasks(userId, 9);
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM tasks WHERE user_id = ? AND NOT deleted " +
+                "ORDER BY created_at, id", Long.class, userId);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = taskPage(user, cursor, 3);
+            page.get("tasks").forEach(task -> seen.add(task.get("id").asLong()));
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        String user = bearerForNewUser();
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        String[] cursors = {
+                "not*base64",
+                base64.encodeToString("no separator".getBytes(StandardCharsets.UTF_8)),
+                base64.encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8)),
+                base64.encodeToString("2025-01-01T00:00|one".getBytes(StandardCharsets.UTF_8))
+        };
+
+        for (String cursor : cursors) {
+            client().get().uri(builder -> builder.path("/api/tasks").queryParam("cursor", cursor).build())
+                    .header(HttpHeaders.AUTHORIZATION, user)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody().jsonPath("$.error").isEqualTo("Invalid cursor.");
+        }
+    }
+
+    @Test
+    void exportStreamsOneTaskPerLine() throws Exception {
+        String user = bearerForNewUser();
+        long first = createTask(user, "Line one\nline two");
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM tasks WHERE id = ?", Long.class, first);
+        // More rows than the export flushes at a time
+        insertTasks(userId, 600);
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM tasks WHERE user_id = ? AND NOT deleted " +
+                "ORDER BY created_at, id", Long.class, userId);
+
+        String body = client().get().uri("/api/tasks/export")
+                .header(HttpHeaders.AUTHORIZATION, user)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).endsWith("\n");
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Long> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode task = objectMapper.readTree(line);
+            assertThat(task.get("title").isTextual()).isTrue();
+            assertThat(task.get("createdAt").isTextual()).isTrue();
+            exported.add(task.get("id").asLong());
+        }
+        assertThat(exported).containsExactlyElementsOf(expected);
+        assertThat(objectMapper.readTree(body.substring(0, body.indexOf('\n'))).get("title").asText())
+                .isEqualTo("Line one\nline two");
+    }
+
+    private JsonNode taskPage(String authorization, String cursor, int size) {
+        return client().get().uri(builder -> builder.path("/api/tasks")
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParam("size", size)
+                        .build())
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private JsonNode changes(String authorization, long since, Integer limit) {
+        return client().get().uri(builder -> builder.path("/api/tasks/changes")
+                        .queryParam("since", since)
+                        .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                        .build())
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private void deleteTask(String authorization, long id) {
+        client().delete().uri("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec loginOtp(String emailOrNumber, String password) {
+        return client().post().uri("/api/users/login-otp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("emailOrNumber", emailOrNumber, "password", password))
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec register(String email, String number) {
+        return client().post().uri("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "New User", "email", email, "number", number, "password", "secret123"))
+                .exchange();
+    }
+
+    // Deletes a fresh account holding `tasks` tasks and returns the SQL statements the request ran
+    private long deleteAccountWithTasks(int tasks) throws InterruptedException {
+        String email = "leaving" + tasks + "-" + System.nanoTime() + "@example.com";
+        long userId = createUser(email, String.format("5%09d", System.nanoTime() % 1_000_000_000));
+        insertTasks(userId, tasks);
+        String caller = bearerForNewUser();
+
+        DistributionSummary statements = meterRegistry.summary("http.server.requests.db.statements",
+                "method", "DELETE", "uri", "/api/users/{email}");
+        long requestsBefore = statements.count();
+        double statementsBefore = statements.totalAmount();
+        client().delete().uri("/api/users/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, caller)
+                .exchange()
+                .expectStatus().isOk();
+        // Recorded once the request's filters return, which can be after the response arrives
+        for (int i = 0; i < 50 && statements.count() == requestsBefore; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(statements.count()).isEqualTo(requestsBefore + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE user_id = ?", Long.class, userId)).isZero();
+        return (long) (statements.totalAmount() - statementsBefore);
+    }
+
+    private void insertTasks(long userId, int count) {
+        jdbcTemplate.update("INSERT INTO tasks (id, title, completed, created_at, change_version, user_id) " +
+                "SELECT nextval('tasks_seq'), 'Task ' || g, false, now(), g, ? FROM generate_series(1, ?) g", userId, count);
+    }
+
+    private Disposable openStream(String authorization, String lastEventId,
+                                  BlockingQueue<ServerSentEvent<String>> events) {
+        return client().get().uri("/api/tasks/stream")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .headers(headers -> {
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null)
+                .subscribe(events::add);
+    }
+
+    private static ServerSentEvent<String> nextEvent(BlockingQueue<ServerSentEvent<String>> events)
+            throws InterruptedException {
+        ServerSentEvent<String> event = events.poll(10, TimeUnit.SECONDS);
+        assertThat(event).as("event within 10 s").isNotNull();
+        return event;
+    }
+
+    private String getETag(String authorization, String uri) {
+        String eTag = client().get().uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        assertThat(eTag).isNotNull();
+        return eTag;
+    }
+}
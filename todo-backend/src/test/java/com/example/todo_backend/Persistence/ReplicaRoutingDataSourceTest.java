@@ -0,0 +1,155 @@
+package com.example.todo_backend.Persistence;
+
+import com.example.todo_backend.Security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Routing decisions against stand-in replicas whose lag and reachability the test sets
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaA = mock(DataSource.class);
+    private final DataSource replicaB = mock(DataSource.class);
+    // Lag each replica reports on its next check; absent means unreachable
+    private final Map<String, Long> lag = new ConcurrentHashMap<>();
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.Replica("a", replicaA),
+                new ReplicaRoutingDataSource.Replica("b", replicaB)),
+                1000, Duration.ofMinutes(1), new SimpleMeterRegistry()) {
+            @Override
+            long measureLagMs(Replica replica) throws SQLException {
+                Long value = lag.get(replica.getName());
+                if (value == null) {
+                    throw new SQLTransientConnectionException("replica down");
+                }
+                return value;
+            }
+        };
+        lag.put("a", 0L);
+        lag.put("b", 0L);
+        routing.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() {
+        assertThat(List.of(readOnly(), readOnly(), readOnly(), readOnly()))
+                .containsExactly(replicaA, replicaB, replicaA, replicaB);
+    }
+
+    @Test
+    void writesAndWorkOutsideTransactionsUseThePrimary() {
+        assertThat(readWrite(false)).isSameAs(primary);
+        assertThat(routing.route()).isSameAs(primary);
+    }
+
+    @Test
+    void laggingOrUnreachableReplicasAreSkipped() {
+        lag.put("a", 5000L);
+        routing.checkReplicas();
+        assertThat(List.of(readOnly(), readOnly())).containsExactly(replicaB, replicaB);
+
+        lag.remove("b");
+        routing.checkReplicas();
+        assertThat(readOnly()).isSameAs(primary);
+
+        lag.put("a", 10L);
+        routing.checkReplicas();
+        assertThat(readOnly()).isSameAs(replicaA);
+    }
+
+    @Test
+    void replicaThatLostItsUpstreamIsSkipped() {
+        // Replay has caught up with everything received, but nothing is being received any more
+        lag.put("a", ReplicaRoutingDataSource.NOT_STREAMING);
+        routing.checkReplicas();
+        assertThat(List.of(readOnly(), readOnly())).containsExactly(replicaB, replicaB);
+
+        lag.put("b", ReplicaRoutingDataSource.NOT_STREAMING);
+        routing.checkReplicas();
+        assertThat(readOnly()).isSameAs(primary);
+
+        lag.put("a", 0L);
+        routing.checkReplicas();
+        assertThat(readOnly()).isSameAs(replicaA);
+    }
+
+    @Test
+    void userReadsTheirOwnWritesFromThePrimary() {
+        signIn(7L);
+        readWrite(true);
+        assertThat(readOnly()).isSameAs(primary);
+
+        signIn(8L);
+        assertThat(readOnly()).isIn(replicaA, replicaB);
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        signIn(9L);
+        readWrite(false);
+        assertThat(readOnly()).isIn(replicaA, replicaB);
+    }
+
+    @Test
+    void onPrimaryOverridesTheReplicas() {
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::readOnly)).isSameAs(primary);
+        assertThat(readOnly()).isIn(replicaA, replicaB);
+    }
+
+    private DataSource readOnly() {
+        return inTransaction(true, false);
+    }
+
+    private DataSource readWrite(boolean commit) {
+        return inTransaction(false, commit);
+    }
+
+    // What the transaction manager has set up by the time the lazy proxy fetches a connection
+    private DataSource inTransaction(boolean readOnly, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            DataSource target = routing.route();
+            if (commit) {
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            }
+            return target;
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private static void signIn(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId + "@example.com", 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
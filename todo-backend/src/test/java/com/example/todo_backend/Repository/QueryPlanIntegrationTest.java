@@ -0,0 +1,120 @@
+package com.example.todo_backend.Repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the SQL behind the hot repository queries against the migrated schema and checks with
+// EXPLAIN that each one is served by its index rather than a sequential scan.
+// Needs Docker; skipped when it is not available
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        // Enough rows spread over enough users that the planner prefers indexes on its own
+        jdbc.execute("INSERT INTO users (name, email, number, enabled, password, created_at) " +
+                "SELECT 'user ' || g, 'user' || g || '@example.com', '90000' || lpad(g::text, 5, '0'), true, 'x', now() " +
+                "FROM generate_series(1, 2000) g");
+        jdbc.execute("INSERT INTO tasks (id, title, completed, created_at, deleted, change_version, user_id) " +
+                "SELECT g, 'task ' || g, g % 3 = 0, now() - (g || ' seconds')::interval, g % 50 = 0, g, (g % 2000) + 1 " +
+                "FROM generate_series(1, 100000) g");
+        // VACUUM also flushes the GIN pending list, which otherwise makes the index look expensive
+        jdbc.execute("VACUUM ANALYZE");
+    }
+
+    @Test
+    void listingUsesUserCreatedIndex() {
+        assertUsesIndex("SELECT * FROM tasks WHERE user_id = 42 AND deleted = false " +
+                "ORDER BY created_at, id LIMIT 21", "idx_tasks_user_created_id");
+    }
+
+    @Test
+    void keysetPageUsesUserCreatedIndex() {
+        assertUsesIndex("SELECT * FROM tasks WHERE user_id = 42 AND deleted = false " +
+                "AND (created_at > now() - interval '1 day' OR (created_at = now() - interval '1 day' AND id > 500)) " +
+                "ORDER BY created_at, id LIMIT 51", "idx_tasks_user_created_id");
+    }
+
+    @Test
+    void completionFilterUsesUserCompletedIndex() {
+        assertUsesIndex("SELECT * FROM tasks WHERE user_id = 42 AND completed = false ORDER BY created_at",
+                "idx_tasks_user_completed_created");
+    }
+
+    @Test
+    void allTasksOfUserIsIndexed() {
+        assertNoSeqScan("SELECT * FROM tasks WHERE user_id = 42 AND deleted = false");
+    }
+
+    @Test
+    void ownedTaskLookupIsIndexed() {
+        assertNoSeqScan("SELECT * FROM tasks WHERE id = 42041 AND user_id = 42 AND deleted = false");
+        assertNoSeqScan("SELECT id FROM tasks WHERE user_id = 42 AND id IN (41, 2041, 4041) AND deleted = false");
+    }
+
+    @Test
+    void changeFeedUsesChangeVersionIndex() {
+        assertUsesIndex("SELECT * FROM tasks WHERE user_id = 42 AND change_version > 90000 " +
+                "ORDER BY change_version LIMIT 51", "idx_tasks_user_change_version");
+    }
+
+    @Test
+    void fullTextSearchIsIndexed() {
+        assertNoSeqScan("SELECT t.id FROM tasks t, websearch_to_tsquery('english', 'task 4042') query " +
+                "WHERE t.user_id = 42 AND NOT t.deleted AND t.search_vector @@ query " +
+                "ORDER BY ts_rank_cd(t.search_vector, query) DESC, t.id DESC LIMIT 51");
+        // Across all users only the GIN index can find a rare term ("task" alone is in every row)
+        assertUsesIndex("SELECT id FROM tasks WHERE search_vector @@ websearch_to_tsquery('english', '4042')",
+                "idx_tasks_search_vector");
+    }
+
+    @Test
+    void archiverFindsCandidatesThroughPartialIndex() {
+        assertUsesIndex("SELECT id FROM tasks WHERE completed AND NOT deleted " +
+                "AND COALESCE(updated_at, created_at) < now() - interval '27 hours' LIMIT 1000",
+                "idx_tasks_completed_last_change");
+    }
+
+    @Test
+    void archiveLookupsStayInOnePartition() {
+        String plan = explain("SELECT * FROM tasks_archive WHERE user_id = 42 AND id = 42041");
+        assertThat(plan).contains("tasks_archive_p").doesNotContain("Append");
+    }
+
+    @Test
+    void loginLookupProbesBothUniqueIndexes() {
+        String plan = explain("SELECT * FROM users WHERE email = '9000000042' OR number = '9000000042' " +
+                "ORDER BY CASE WHEN email = '9000000042' THEN 0 ELSE 1 END LIMIT 1");
+        assertThat(plan).doesNotContain("Seq Scan").contains("uk_users_email").contains("uk_users_number");
+    }
+
+    private static void assertUsesIndex(String sql, String index) {
+        assertThat(explain(sql)).doesNotContain("Seq Scan").contains(index);
+    }
+
+    private static void assertNoSeqScan(String sql) {
+        assertThat(explain(sql)).doesNotContain("Seq Scan");
+    }
+
+    private static String explain(String sql) {
+        return String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.todo_backend.Security;
+
+import com.example.todo_backend.Exception.GlobalExceptionHandler;
+import com.example.todo_backend.Exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger hashes = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private ThreadPoolTaskExecutor hashExecutor;
+
+    // Holds every hash until the test releases it
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashes.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        // One hashing thread and one queue slot, like app.password.hash.concurrency/queue-capacity
+        hashExecutor = new ThreadPoolTaskExecutor();
+        hashExecutor.setCorePoolSize(1);
+        hashExecutor.setMaxPoolSize(1);
+        hashExecutor.setQueueCapacity(1);
+        hashExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        hashExecutor.shutdown();
+    }
+
+    @Test
+    void fullPoolAndQueueAreRejectedWith429() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, hashExecutor, 5000, meterRegistry);
+        Future<String> hashing = callers.submit(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        awaitQueued(1);
+
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(5));
+
+        // The same rejection through the exception handler the controllers use
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LoginController(encoder))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        mockMvc.perform(post("/login"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                .andExpect(jsonPath("$.error").value("Too many sign-in attempts right now. Please try again shortly."));
+
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(2);
+
+        // Callers that got a slot are unaffected
+        release.countDown();
+        assertThat(hashing.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+        assertThat(hashes).hasValue(2);
+    }
+
+    @Test
+    void hashStillQueuedAfterTheTimeoutIsAbandoned() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, hashExecutor, 100, meterRegistry);
+        Future<String> hashing = callers.submit(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.matches("second", "hashed:second"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+
+        // The abandoned task gives its slot back without hashing
+        release.countDown();
+        assertThat(hashing.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+        awaitQueued(0);
+        hashExecutor.shutdown();
+        assertThat(hashExecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hashes).hasValue(1);
+    }
+
+    @Test
+    void freeSlotHashesOnTheDelegate() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, hashExecutor, 5000, meterRegistry);
+        release.countDown();
+
+        assertThat(encoder.matches("secret", "hashed:secret")).isTrue();
+        assertThat(encoder.matches("secret", "hashed:other")).isFalse();
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isZero();
+    }
+
+    private void awaitQueued(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hashExecutor.getThreadPoolExecutor().getQueue().size() != size) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @RestController
+    static class LoginController {
+        private final PasswordEncoder passwordEncoder;
+
+        LoginController(PasswordEncoder passwordEncoder) {
+            this.passwordEncoder = passwordEncoder;
+        }
+
+        @PostMapping("/login")
+        boolean login() {
+            return passwordEncoder.matches("secret", "hashed:secret");
+        }
+    }
+}
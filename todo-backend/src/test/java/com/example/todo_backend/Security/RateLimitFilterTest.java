@@ -0,0 +1,150 @@
+package com.example.todo_backend.Security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/api/users/login-otp";
+    private static final String REGISTER = "/api/users/register";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        // Limited by IP only
+        properties.getRoutes().put("register", route(REGISTER, null, rate(2), null));
+        // Generous per IP, one attempt per account
+        properties.getRoutes().put("login-otp", route(LOGIN, "emailOrNumber", rate(100), rate(1)));
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "objectMapper", objectMapper);
+        filter.init();
+    }
+
+    @Test
+    void emptyIpBucketAnswers429WithRetryAfter() throws Exception {
+        assertThat(send(post(REGISTER, "10.0.0.1", "{}")).getStatus()).isEqualTo(200);
+        assertThat(send(post(REGISTER, "10.0.0.1", "{}")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send(post(REGISTER, "10.0.0.1", "{}"));
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // One permit a minute
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(objectMapper.readValue(rejected.getContentAsByteArray(), Map.class))
+                .containsEntry("error", "Too many requests. Please try again in 30 seconds.");
+
+        assertThat(send(post(REGISTER, "10.0.0.2", "{}")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void accountIsTakenFromTheJsonBody() throws Exception {
+        assertThat(send(post(LOGIN, "10.0.0.1", "{\"emailOrNumber\":\"alice@example.com\"}")).getStatus()).isEqualTo(200);
+
+        // Another address and other spelling, same account
+        MockHttpServletResponse rejected = send(post(LOGIN, "10.0.0.2", "{\"emailOrNumber\":\" Alice@Example.COM \"}"));
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+
+        assertThat(send(post(LOGIN, "10.0.0.1", "{\"emailOrNumber\":\"bob@example.com\"}")).getStatus()).isEqualTo(200);
+        // No account in the body: only the IP limit applies
+        assertThat(send(post(LOGIN, "10.0.0.1", "{\"other\":\"alice@example.com\"}")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void controllerStillReadsTheInspectedBody() throws Exception {
+        String body = "{\"emailOrNumber\":\"carol@example.com\",\"password\":\"secret\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(post(LOGIN, "10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void bodiesOverTheCapAre413WhateverContentLengthSays() throws Exception {
+        String large = "{\"emailOrNumber\":\"" + "x".repeat(9000) + "\"}";
+
+        MockHttpServletResponse declared = send(post(LOGIN, "10.0.0.1", large));
+        assertThat(declared.getStatus()).isEqualTo(413);
+
+        // Chunked: no Content-Length to go by
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", LOGIN) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        chunked.setServletPath(LOGIN);
+        chunked.setRemoteAddr("10.0.0.1");
+        chunked.setContent(large.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = send(chunked);
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(objectMapper.readValue(response.getContentAsByteArray(), Map.class))
+                .containsEntry("error", "Request body is too large.");
+    }
+
+    @Test
+    void otherEndpointsAndMethodsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(post("/api/tasks/create", "10.0.0.1", "{}")).getStatus()).isEqualTo(200);
+            MockHttpServletRequest get = post(REGISTER, "10.0.0.1", "{}");
+            get.setMethod("GET");
+            assertThat(send(get).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String path, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static RateLimitProperties.Route route(String path, String accountField,
+                                                   RateLimitProperties.Rate ip, RateLimitProperties.Rate account) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setAccountField(accountField);
+        route.setIp(ip);
+        route.setAccount(account);
+        return route;
+    }
+
+    // Burst of `capacity`, refilled at `capacity` per minute
+    private static RateLimitProperties.Rate rate(int capacity) {
+        RateLimitProperties.Rate rate = new RateLimitProperties.Rate();
+        rate.setCapacity(capacity);
+        rate.setPermitsPerMinute(capacity);
+        return rate;
+    }
+}
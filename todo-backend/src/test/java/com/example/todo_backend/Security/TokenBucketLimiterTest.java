@@ -0,0 +1,53 @@
+package com.example.todo_backend.Security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenOnePermitPerEmissionInterval() {
+        // 3 burst, 60 per minute: one new permit a second
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 60, 1000, 4);
+        long now = 0;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("key", now)).isZero();
+        }
+        assertThat(limiter.tryAcquire("key", now)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("key", now + SECOND / 2)).isEqualTo(SECOND / 2);
+
+        assertThat(limiter.tryAcquire("key", now + SECOND)).isZero();
+        assertThat(limiter.tryAcquire("key", now + SECOND)).isPositive();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 60, 1000, 4);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+    }
+
+    @Test
+    void fullStripesDropRefilledBucketsBeforeSharingTheOverflow() {
+        // One stripe holding at most two keys
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 60, 2, 1);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+
+        // Still draining: the third key lands on the overflow bucket
+        assertThat(limiter.tryAcquire("c", 0)).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        // Once a and b have refilled they are swept and c gets its own bucket
+        assertThat(limiter.tryAcquire("c", 10 * SECOND)).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.todo_backend.Service;
+
+import com.example.todo_backend.Entity.EmailOutbox;
+import com.example.todo_backend.Repository.EmailOutboxRepository;
+import com.example.todo_backend.Util.PayloadCipher;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    private static final String SECRET = "outbox-test-secret";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository repository;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        OtpEmailRenderer renderer = new OtpEmailRenderer();
+        renderer.init();
+
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "otpEmailRenderer", renderer);
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(emailService, "encryptionSecret", SECRET);
+        emailService.init();
+
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", repository);
+        ReflectionTestUtils.setField(dispatcher, "emailService", emailService);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionOperations", TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 10_000L);
+        dispatcher.init();
+    }
+
+    @Test
+    void sendsBatchOverSmtpAndDeletesDeliveredRows() throws Exception {
+        List<EmailOutbox> batch = List.of(outbox(1L, "alice@example.com", "111111"), outbox(2L, "bob@example.com", "222222"));
+
+        dispatcher.sendBatch(batch);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received).extracting(MimeMessage::getSubject).containsOnly("Your OTP Code for ToDo App");
+        assertThat(received).extracting(GreenMailUtil::getBody)
+                .anySatisfy(body -> assertThat(body).contains("111111"))
+                .anySatisfy(body -> assertThat(body).contains("222222"));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void schedulesRetryWithBackoffWhenRelayIsDown() {
+        mailSender.setPort(1);
+        EmailOutbox email = outbox(3L, "carol@example.com", "333333");
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.sendBatch(List.of(email));
+
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(email.getNextAttemptAt()).isAfter(before);
+        assertThat(email.getLastError()).isNotBlank();
+        verify(repository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void marksRowFailedAfterMaxAttempts() {
+        mailSender.setPort(1);
+        EmailOutbox email = outbox(4L, "dave@example.com", "444444");
+        email.setAttempts(2);
+
+        dispatcher.sendBatch(List.of(email));
+
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.FAILED);
+        assertThat(email.getOtpCiphertext()).isNull();
+    }
+
+    @Test
+    void failedClaimsDoNotUseUpWorkerPermits() {
+        when(repository.lockDueBatch(any(), anyInt())).thenThrow(new TransientDataAccessResourceException("connection reset"));
+
+        // One worker: a leaked permit would stop every drain after the first
+        for (int i = 0; i < 3; i++) {
+            dispatcher.drain();
+        }
+
+        verify(repository, times(3)).lockDueBatch(any(), anyInt());
+    }
+
+    @Test
+    void rejectedSubmitDoesNotUseUpWorkerPermits() {
+        when(repository.lockDueBatch(any(), anyInt())).thenAnswer(invocation -> List.of(outbox(5L, "erin@example.com", "555555")));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxExecutor", (Executor) command -> {
+            throw new RejectedExecutionException("shutting down");
+        });
+
+        dispatcher.drain();
+        dispatcher.drain();
+
+        verify(repository, times(2)).lockDueBatch(any(), anyInt());
+    }
+
+    private static EmailOutbox outbox(Long id, String recipient, String otp) {
+        return EmailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .recipientName("Test User")
+                .otpCiphertext(new PayloadCipher(SECRET).encrypt(otp))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todo_backend.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest extends OtpStoreContractTest {
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore(8);
+
+    @Override
+    protected OtpStore store() {
+        return store;
+    }
+
+    @Test
+    void tickEvictsExpiredCodes() throws InterruptedException {
+        store.put(newKey(), "soon", now() + 100);
+        store.put(newKey(), "later", now() + 60_000);
+
+        // The code is due in the slot after its expiry second
+        Thread.sleep(2_100);
+        store.tick();
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+}
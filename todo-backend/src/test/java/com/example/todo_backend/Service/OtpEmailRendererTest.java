@@ -0,0 +1,113 @@
+package com.example.todo_backend.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OtpEmailRendererTest {
+
+    // Everything HTML escaping touches, alone and mixed with ordinary text
+    private static final List<String> NAMES = Arrays.asList(
+            "Jane", "Tom & Jerry", "<script>alert(1)</script>", "Say \"hi\"", "Jane O'Neil",
+            "a&<>\"'b", "&amp; already escaped", "Zoë 😀", "", null);
+
+    private static final String OTP = "482913";
+
+    @Test
+    void precompiledTemplateMatchesThymeleaf() {
+        OtpEmailRenderer renderer = new OtpEmailRenderer();
+        renderer.init();
+        assertThat(renderer.isPrecompiled()).isTrue();
+
+        TemplateEngine thymeleaf = classpathEngine();
+        for (String name : NAMES) {
+            assertThat(renderer.render(name, OTP)).as("name %s", name)
+                    .isEqualTo(thymeleaf.process("otp-email-template", context(name, OTP)));
+        }
+    }
+
+    @Test
+    void slotsKeepTheirOtherAttributes() {
+        String template = "<html xmlns:th=\"http://www.thymeleaf.org\"><body>" +
+                "<p class=\"greeting\" th:text=\"${name}\" id=\"n\">User</p>" +
+                "<div th:text=\"${otp}\">000000</div><span th:text=\"${name}\">again</span></body></html>";
+        OtpEmailRenderer renderer = new OtpEmailRenderer();
+        renderer.compile(template);
+        assertThat(renderer.isPrecompiled()).isTrue();
+
+        TemplateEngine thymeleaf = stringEngine();
+        for (String name : NAMES) {
+            assertThat(renderer.render(name, OTP)).as("name %s", name)
+                    .isEqualTo(thymeleaf.process(template, context(name, OTP)));
+        }
+    }
+
+    @Test
+    void templatesBeyondTextSlotsAreLeftToThymeleaf() {
+        String[] templates = {
+                "<p th:text=\"${name}\">User</p><a th:href=\"${link}\">Open</a>",
+                "<p th:text=\"${name}\">User</p><p th:if=\"${otp}\">Code below</p>",
+                "<p th:text=\"${name}\">User</p><p>[[${otp}]]</p>",
+                "<p th:utext=\"${name}\">User</p>",
+                "<p>No slots at all</p>"
+        };
+        for (String template : templates) {
+            OtpEmailRenderer renderer = new OtpEmailRenderer();
+            renderer.compile(template);
+            assertThat(renderer.isPrecompiled()).as(template).isFalse();
+            assertThatThrownBy(() -> renderer.render("Jane", OTP)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void emailServiceFallsBackToThymeleafWhenNotPrecompiled() {
+        OtpEmailRenderer renderer = new OtpEmailRenderer();
+        renderer.compile("<p th:text=\"${name}\">User</p><a th:href=\"${link}\">Open</a>");
+        TemplateEngine thymeleaf = classpathEngine();
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "otpEmailRenderer", renderer);
+        ReflectionTestUtils.setField(emailService, "templateEngine", thymeleaf);
+
+        assertThat(emailService.renderOtpEmail("Tom & Jerry", OTP))
+                .isEqualTo(thymeleaf.process("otp-email-template", context("Tom & Jerry", OTP)))
+                .contains("Tom &amp; Jerry", OTP);
+    }
+
+    private static Context context(String name, String otp) {
+        Context context = new Context();
+        context.setVariable("name", name);
+        context.setVariable("otp", otp);
+        return context;
+    }
+
+    // Resolves templates the way spring.thymeleaf.* configures the application
+    private static TemplateEngine classpathEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private static TemplateEngine stringEngine() {
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.todo_backend.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Behaviour every OtpStore must share; subclasses supply the store under test
+abstract class OtpStoreContractTest {
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final AtomicInteger KEYS = new AtomicInteger();
+
+    protected abstract OtpStore store();
+
+    // Fresh key per test, so stores shared across tests do not interfere
+    protected String newKey() {
+        return "LOGIN:user" + KEYS.incrementAndGet() + "@example.com";
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    @Test
+    void matchingCodeIsConsumed() {
+        String key = newKey();
+        store().put(key, "right", now() + 60_000);
+
+        assertThat(store().check(key, "right", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MATCH);
+        assertThat(store().check(key, "right", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISSING);
+    }
+
+    @Test
+    void wrongCodesCountUntilTheCodeIsLocked() {
+        String key = newKey();
+        store().put(key, "right", now() + 60_000);
+
+        for (int i = 1; i < MAX_ATTEMPTS; i++) {
+            assertThat(store().check(key, "wrong", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISMATCH);
+        }
+        assertThat(store().check(key, "wrong", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.LOCKED);
+        // The right code no longer helps once the limit is used up
+        assertThat(store().check(key, "right", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISSING);
+    }
+
+    @Test
+    void reissuingResetsTheAttemptCounter() {
+        String key = newKey();
+        store().put(key, "first", now() + 60_000);
+        for (int i = 1; i < MAX_ATTEMPTS; i++) {
+            store().check(key, "wrong", MAX_ATTEMPTS, now());
+        }
+
+        store().put(key, "second", now() + 60_000);
+
+        assertThat(store().check(key, "wrong", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISMATCH);
+        assertThat(store().check(key, "second", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MATCH);
+    }
+
+    @Test
+    void expiredCodeIsMissing() {
+        String key = newKey();
+        long expiresAt = now() + 60_000;
+        store().put(key, "right", expiresAt);
+
+        assertThat(store().check(key, "right", MAX_ATTEMPTS, expiresAt)).isEqualTo(OtpStore.CheckResult.MISSING);
+    }
+
+    @Test
+    void unknownKeyIsMissing() {
+        assertThat(store().check(newKey(), "right", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISSING);
+    }
+}
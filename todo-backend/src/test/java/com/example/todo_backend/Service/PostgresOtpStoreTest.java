@@ -0,0 +1,74 @@
+package com.example.todo_backend.Service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the store contract against the migrated otp_codes table.
+// Needs Docker; skipped when it is not available
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresOtpStoreTest extends OtpStoreContractTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static DataSourceTransactionManager transactionManager;
+    private static PostgresOtpStore store;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        store = new PostgresOtpStore();
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(store, "transactionManager", transactionManager);
+        store.init();
+    }
+
+    @Override
+    protected OtpStore store() {
+        return store;
+    }
+
+    @Test
+    void wrongCodeIsCountedEvenWhenTheCallersTransactionRollsBack() {
+        String key = newKey();
+        store.put(key, "right", now() + 60_000);
+
+        // As in UserController.verifyOtp: the check runs inside a transaction that a wrong code rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(store.check(key, "wrong", MAX_ATTEMPTS, now())).isEqualTo(OtpStore.CheckResult.MISMATCH);
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbc.queryForObject("SELECT attempts FROM otp_codes WHERE otp_key = ?", Integer.class, key)).isEqualTo(1);
+    }
+
+    @Test
+    void purgeRemovesExpiredRows() {
+        String expired = newKey();
+        String live = newKey();
+        store.put(expired, "old", now() - 1);
+        store.put(live, "new", now() + 60_000);
+
+        store.purgeExpired();
+
+        assertThat(jdbc.queryForList("SELECT otp_key FROM otp_codes WHERE otp_key IN (?, ?)", String.class, expired, live))
+                .containsExactly(live);
+    }
+}
@@ -3,7 +3,17 @@ package com.example.todo_backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Runs on the embedded H2 database. The Flyway migrations are PostgreSQL only, so here
+// Hibernate creates the schema instead
+@SpringBootTest(properties = {
+		"jwt.secret=context-test-secret-context-test-secret-context-test-secret",
+		"jwt.expiration-ms=3600000",
+		"app.cors.allowedOrigin=http://localhost",
+		"app.mail.outbox.enabled=false",
+		"app.tasks.archive.enabled=false",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
 class TodoBackendApplicationTests {
 
 	@Test
@@ -0,0 +1,34 @@
+package com.example.todo_backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesWhatWasPut() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("newcomer" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(1_500);
+    }
+}
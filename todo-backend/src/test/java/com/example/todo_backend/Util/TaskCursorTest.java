@@ -0,0 +1,38 @@
+package com.example.todo_backend.Util;
+
+import com.example.todo_backend.Exception.UserException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000);
+        TaskCursor cursor = TaskCursor.decode(new TaskCursor(createdAt, 42L).encode());
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void malformedTokensAreUserErrors() {
+        String[] tokens = {"not*base64", encode("no separator"), encode("yesterday|1"), encode("2025-01-01T00:00|one"), ""};
+
+        for (String token : tokens) {
+            assertThatThrownBy(() -> TaskCursor.decode(token))
+                    .isInstanceOf(UserException.class)
+                    .hasMessage("Invalid cursor.");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -32,28 +32,107 @@ function TaskPage() {
   }, [token]);
 
   // --- Fetch all tasks for the user ---
+  const fetchTasks = useCallback(async () => {
+    try {
+      const response = await axios.get('http://localhost:9090/api/tasks/all', getAuthHeaders());
+      // Sort tasks to show incomplete ones first
+      const sortedTasks = response.data.sort((a, b) => a.completed - b.completed);
+      setTasks(sortedTasks);
+    } catch (err) {
+      setError('Failed to fetch tasks. Please try again later.');
+      console.error(err);
+    } finally {
+      setIsLoading(false);
+    }
+  }, [getAuthHeaders]);
+
   useEffect(() => {
     if (!token) {
       navigate('/login');
       return;
     }
+    fetchTasks();
+  }, [token, navigate, fetchTasks]);
 
-    const fetchTasks = async () => {
+  // --- Live updates: changes made on other devices arrive as server-sent events ---
+  // EventSource cannot send the Authorization header, so the stream is read with fetch. After a
+  // dropped connection it reconnects with Last-Event-ID and the server replays what was missed
+  useEffect(() => {
+    if (!token) {
+      return;
+    }
+    const controller = new AbortController();
+    let lastEventId = null;
+    let retryTimer;
+
+    const applyEvent = (name, change, freshStream) => {
+      if (name === 'created' || name === 'updated') {
+        setTasks(prevTasks => [...prevTasks.filter(task => task.id !== change.taskId), change.task]
+          .sort((a, b) => a.completed - b.completed));
+      } else if (name === 'deleted') {
+        setTasks(prevTasks => prevTasks.filter(task => task.id !== change.taskId));
+      } else if (name === 'resync' || (name === 'ready' && freshStream)) {
+        // Reload once the stream is open, so nothing written in between is missed
+        fetchTasks();
+      }
+    };
+
+    const connect = async () => {
       try {
-        const response = await axios.get('http://localhost:9090/api/tasks/all', getAuthHeaders());
-        // Sort tasks to show incomplete ones first
-        const sortedTasks = response.data.sort((a, b) => a.completed - b.completed);
-        setTasks(sortedTasks);
+        const headers = { 'Authorization': `Bearer ${token}` };
+        if (lastEventId !== null) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        const response = await fetch('http://localhost:9090/api/tasks/stream', { headers, signal: controller.signal });
+        if (!response.ok) {
+          throw new Error(`Task stream answered ${response.status}`);
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += value;
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            let name = 'message';
+            let id = null;
+            let data = '';
+            for (const line of block.split('\n')) {
+              if (line.startsWith('event:')) name = line.slice(6).trim();
+              else if (line.startsWith('id:')) id = line.slice(3).trim();
+              else if (line.startsWith('data:')) data += line.slice(5);
+            }
+            if (data) { // blocks without data are keep-alive comments
+              const freshStream = lastEventId === null;
+              if (id !== null) {
+                lastEventId = id;
+              }
+              applyEvent(name, JSON.parse(data), freshStream);
+            }
+          }
+        }
       } catch (err) {
-        setError('Failed to fetch tasks. Please try again later.');
+        if (controller.signal.aborted) {
+          return;
+        }
         console.error(err);
-      } finally {
-        setIsLoading(false);
+      }
+      if (!controller.signal.aborted) {
+        retryTimer = setTimeout(connect, 3000);
       }
     };
 
-    fetchTasks();
-  }, [token, navigate, getAuthHeaders]);
+    connect();
+    return () => {
+      controller.abort();
+      clearTimeout(retryTimer);
+    };
+  }, [token, fetchTasks]);
 
   // --- Handle Task Creation ---
   const handleCreateTask = async (e) => {